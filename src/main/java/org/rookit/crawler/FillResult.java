@@ -0,0 +1,49 @@
+package org.rookit.crawler;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Optional;
+
+import org.rookit.dm.track.Track;
+
+import com.google.common.collect.ImmutableSet;
+
+@SuppressWarnings("javadoc")
+public class FillResult {
+	
+	static FillResult filled(Track track, Collection<String> services) {
+		return new FillResult(track, ImmutableSet.copyOf(services), null);
+	}
+	
+	static FillResult failed(Track track, Throwable error) {
+		return new FillResult(track, Collections.emptySet(), error);
+	}
+	
+	private final Track track;
+	private final Collection<String> services;
+	private final Throwable error;
+	
+	private FillResult(Track track, Collection<String> services, Throwable error) {
+		super();
+		this.track = track;
+		this.services = services;
+		this.error = error;
+	}
+
+	public Track getTrack() {
+		return track;
+	}
+
+	public Collection<String> getServices() {
+		return services;
+	}
+
+	public Optional<Throwable> getError() {
+		return Optional.ofNullable(error);
+	}
+	
+	public boolean isFilled() {
+		return error == null && !services.isEmpty();
+	}
+
+}
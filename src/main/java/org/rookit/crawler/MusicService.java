@@ -1,14 +1,19 @@
 package org.rookit.crawler;
 
+import java.io.Closeable;
+
+import org.rookit.crawler.utils.ServiceExecutor;
 import org.rookit.dm.album.Album;
 import org.rookit.dm.artist.Artist;
 import org.rookit.dm.genre.Genre;
 import org.rookit.dm.track.Track;
 
+import io.reactivex.Completable;
 import io.reactivex.Observable;
+import io.reactivex.Scheduler;
 
 @SuppressWarnings("javadoc")
-public interface MusicService {
+public interface MusicService extends Closeable {
 	
 	String ID = "id";
 	String LISTENERS = "listeners";
@@ -21,9 +26,20 @@ public interface MusicService {
 	String TAGS = "tags";
 	String WIKI = "wiki";
 	String PLAYS = "plays";
+	String IMAGE = "image";
+	String WIDTH = "width";
+	String HEIGHT = "height";
+	String REFRESHED = "refreshed";
 	
 	String getName();
 	
+	Scheduler getRequestScheduler();
+	
+	/**
+	 * @return the executor behind {@link #getRequestScheduler()}, owned by this service.
+	 */
+	ServiceExecutor getRequestExecutor();
+	
 	Observable<Track> searchTrack(Track track);
 	Observable<Track> getArtistTracks(Artist artist);
 	
@@ -41,4 +57,7 @@ public interface MusicService {
 
 	Observable<Track> getAlbumTracks(Album album);
 	
+	Completable loadCover(Album album);
+	Completable loadPicture(Artist artist);
+	
 }
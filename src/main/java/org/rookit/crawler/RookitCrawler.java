@@ -11,7 +11,12 @@ import java.util.List;
 import java.util.Optional;
 import java.util.logging.Logger;
 
+import org.apache.commons.lang3.tuple.Pair;
+import org.rookit.crawler.cache.MissCache;
+import org.rookit.crawler.config.GraphConfig;
 import org.rookit.crawler.config.MusicServiceConfig;
+import org.rookit.crawler.graph.GraphCrawler;
+import org.rookit.crawler.schedule.CrawlScheduler;
 import org.rookit.crawler.similarity.SimilarityProvider;
 import org.rookit.dm.artist.Artist;
 import org.rookit.dm.play.able.Playable;
@@ -22,9 +27,13 @@ import org.rookit.dm.track.audio.AudioFeature;
 import org.rookit.dm.track.audio.TrackKey;
 import org.rookit.dm.track.audio.TrackMode;
 
+import com.google.common.collect.Iterables;
+
 import io.reactivex.Completable;
+import io.reactivex.Flowable;
 import io.reactivex.Maybe;
 import io.reactivex.Observable;
+import io.reactivex.Single;
 
 @SuppressWarnings("javadoc")
 public class RookitCrawler implements Closeable {
@@ -34,23 +43,121 @@ public class RookitCrawler implements Closeable {
 	private final ServiceProvider provider;
 	
 	private final SimilarityProvider measures;
+	
+	private final MissCache misses;
+	
+	private final GraphConfig graphConfig;
+	
+	private final CrawlScheduler crawlScheduler;
+	
+	private final int maxTracksInFlight;
+	private final int maxServicesPerTrack;
+	private final boolean lazyImages;
 
 	public RookitCrawler(MusicServiceConfig config) {
 		provider = new ServiceProviderImpl(config);
 		measures = SimilarityProvider.create();
+		misses = MissCache.create(config.getCache());
+		graphConfig = config.getGraph();
+		crawlScheduler = CrawlScheduler.create(config.getPriority());
+		maxTracksInFlight = config.getMaxTracksInFlight();
+		maxServicesPerTrack = config.getMaxServicesPerTrack();
+		lazyImages = config.getImages().isLazy();
 	}
 
 	public Completable fillTrack(Track source) {
+		return fillTrack(source, false);
+	}
+	
+	/**
+	 * @param force if true, services where this track was previously not found are searched again.
+	 */
+	public Completable fillTrack(Track source, boolean force) {
+		return searchServices(source, force)
+				.doAfterNext(match -> resolveTracks(source, match.getRight()))
+				.ignoreElements();
+	}
+	
+	public Flowable<FillResult> fillTracks(Flowable<Track> sources) {
+		return fillTracks(sources, maxTracksInFlight);
+	}
+	
+	public Flowable<FillResult> fillTracks(Flowable<Track> sources, int maxInFlight) {
+		return fillTracks(sources, maxInFlight, false);
+	}
+	
+	public Flowable<FillResult> fillTracks(Flowable<Track> sources, int maxInFlight, boolean force) {
+		return sources.flatMapSingle(source -> fillTrackResult(source, force), false, maxInFlight);
+	}
+	
+	public MissCache getMissCache() {
+		return misses;
+	}
+	
+	public CrawlScheduler getCrawlScheduler() {
+		return crawlScheduler;
+	}
+	
+	/**
+	 * @return a crawler over the related artists graph of the service, resuming any crawl left
+	 * unfinished. The caller is responsible for closing it.
+	 */
+	public GraphCrawler createGraphCrawler(AvailableServices serviceKey) {
+		final MusicService service = provider.getService(serviceKey)
+				.orElseThrow(() -> new RuntimeException("Service not active: " + serviceKey));
+		return GraphCrawler.create(service, graphConfig, crawlScheduler);
+	}
+	
+	private Single<FillResult> fillTrackResult(Track source, boolean force) {
+		return searchServices(source, force)
+				.doAfterNext(match -> resolveTracks(source, match.getRight()))
+				.map(match -> match.getLeft().getName())
+				.toList()
+				.map(services -> FillResult.filled(source, services))
+				.onErrorReturn(error -> FillResult.failed(source, error));
+	}
+	
+	private Observable<Pair<MusicService, Track>> searchServices(Track source, boolean force) {
 		LOGGER.info("Filling: " + source.getLongFullTitle());
 		final SimilarityMeasure<Track> measure = measures.getMeasure(Track.class, source);
+		final String query = source.getLongFullTitle();
 		return Observable.fromArray(values())
 				.map(provider::getService)
 				.filter(Optional::isPresent)
 				.map(Optional::get)
 				.filter(service -> !source.getExternalMetadata().containsKey(service.getName()))
-				.flatMapMaybe(service -> searchTrackOnService(measure, service, source))
-				.doAfterNext(track -> resolveTracks(source, track))
-				.ignoreElements();
+				.filter(service -> force || !isKnownMiss(service, query))
+				.flatMap(service -> searchTrackOnService(measure, service, source)
+						.doOnSuccess(track -> {
+							if(force) {
+								misses.clear(service.getName(), query);
+							}
+						})
+						.doOnComplete(() -> misses.recordMiss(service.getName(), query))
+						.flatMap(track -> loadImages(service, track).andThen(Maybe.just(track)))
+						.map(track -> Pair.of(service, track))
+						.toObservable()
+						.subscribeOn(service.getRequestScheduler()), maxServicesPerTrack);
+	}
+	
+	/**
+	 * In lazy mode, only the images of the accepted match are downloaded, never those of the
+	 * candidates it was chosen from.
+	 */
+	private Completable loadImages(MusicService service, Track match) {
+		if(!lazyImages) {
+			return Completable.complete();
+		}
+		return Observable.fromIterable(Iterables.concat(match.getMainArtists(), match.getFeatures(), match.getProducers()))
+				.flatMapCompletable(artist -> service.loadPicture(artist).onErrorComplete());
+	}
+	
+	private boolean isKnownMiss(MusicService service, String query) {
+		if(misses.isKnownMiss(service.getName(), query)) {
+			LOGGER.fine("Skipping " + service.getName() + ", no match for '" + query + "' last time");
+			return true;
+		}
+		return false;
 	}
 	
 	private Maybe<Track> searchTrackOnService(SimilarityMeasure<Track> measure, MusicService service, Track source) {
@@ -191,6 +298,8 @@ public class RookitCrawler implements Closeable {
 	@Override
 	public void close() throws IOException {
 		provider.close();
+		misses.close();
+		crawlScheduler.close();
 	}
 
 }
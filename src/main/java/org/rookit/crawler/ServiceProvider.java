@@ -3,9 +3,13 @@ package org.rookit.crawler;
 import java.io.Closeable;
 import java.util.Optional;
 
+import org.rookit.crawler.cache.CrawlerCache;
+
 @SuppressWarnings("javadoc")
 public interface ServiceProvider extends Closeable {
 	
 	Optional<MusicService> getService(AvailableServices serviceKey);
+	
+	CrawlerCache getCache();
 
 }
@@ -1,13 +1,12 @@
 package org.rookit.crawler;
 
-import java.io.File;
 import java.io.IOException;
 import java.util.Map;
 import java.util.Optional;
 
-import org.mapdb.DB;
-import org.mapdb.DBMaker;
+import org.rookit.crawler.cache.CrawlerCache;
 import org.rookit.crawler.config.MusicServiceConfig;
+import org.rookit.crawler.image.ImageFetcher;
 
 import com.google.common.collect.Maps;
 
@@ -15,16 +14,16 @@ import static org.rookit.crawler.AvailableServices.*;
 
 class ServiceProviderImpl implements ServiceProvider {
 
-	private final DB cache; 
+	private final CrawlerCache cache;
+	private final ImageFetcher images;
 	private final Map<AvailableServices, MusicService> activeServices;
 
 	ServiceProviderImpl(MusicServiceConfig config) {
-		cache = DBMaker.fileDB(new File(config.getCachePath()))
-				.fileMmapEnable()
-				.make();
+		cache = CrawlerCache.create(config.getCachePath(), config.getCache());
+		images = ImageFetcher.create(config.getImages());
 		activeServices = Maps.newHashMapWithExpectedSize(AvailableServices.values().length);
 		//			activeServices.put(LASTFM, new LastFM(config.getLastfm()));
-		activeServices.put(SPOTIFY, new Spotify(config, cache));
+		activeServices.put(SPOTIFY, new Spotify(config, cache.getShards(), images));
 	}
 
 	@Override
@@ -32,8 +31,17 @@ class ServiceProviderImpl implements ServiceProvider {
 		return Optional.ofNullable(activeServices.get(serviceKey));
 	}
 
+	@Override
+	public CrawlerCache getCache() {
+		return cache;
+	}
+
 	@Override
 	public void close() throws IOException {
+		for(MusicService service : activeServices.values()) {
+			service.close();
+		}
+		images.close();
 		cache.close();
 	}
 
@@ -3,16 +3,38 @@ package org.rookit.crawler;
 import static org.rookit.crawler.AvailableServices.SPOTIFY;
 
 import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.net.URL;
+import java.time.Duration;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Semaphore;
+import java.util.function.BiFunction;
+import java.util.function.Function;
 import java.util.logging.Logger;
 import java.util.stream.Collectors;
 
 import org.mapdb.DB;
+import org.rookit.crawler.cache.Endpoint;
+import org.rookit.crawler.cache.ResponseCache;
 import org.rookit.crawler.config.MusicServiceConfig;
 import org.rookit.crawler.config.SpotifyConfig;
 import org.rookit.crawler.factory.SpotifyFactory;
+import org.rookit.crawler.image.ImageCache;
+import org.rookit.crawler.image.ImageFetcher;
+import org.rookit.crawler.similarity.ArtistIndex;
+import org.rookit.crawler.utils.AdaptiveRateLimiter;
+import org.rookit.crawler.utils.MicroBatcher;
+import org.rookit.crawler.utils.RetryPolicy;
+import org.rookit.crawler.utils.ServiceExecutor;
+import org.rookit.crawler.utils.SingleFlight;
+import org.rookit.crawler.utils.VirtualThreads;
+import org.rookit.crawler.utils.spotify.PageFetchException;
 import org.rookit.crawler.utils.spotify.PageObservable;
+import org.rookit.crawler.utils.spotify.RequestExecutor;
 import org.rookit.dm.MetadataHolder;
 import org.rookit.dm.album.Album;
 import org.rookit.dm.artist.Artist;
@@ -21,8 +43,6 @@ import org.rookit.dm.track.Track;
 
 import com.google.common.base.Objects;
 import com.google.common.collect.Iterables;
-import com.google.common.collect.Lists;
-import com.google.common.util.concurrent.RateLimiter;
 import com.wrapper.spotify.Api;
 import com.wrapper.spotify.methods.Request;
 import com.wrapper.spotify.methods.albums.AlbumsRequest;
@@ -32,33 +52,104 @@ import com.wrapper.spotify.models.album.SimpleAlbum;
 import com.wrapper.spotify.models.artist.SimpleArtist;
 import com.wrapper.spotify.models.audio.AudioFeature;
 import com.wrapper.spotify.models.authentication.ClientCredentials;
+import com.wrapper.spotify.models.page.Page;
 import com.wrapper.spotify.models.playlist.Playlist;
 import com.wrapper.spotify.models.playlist.PlaylistTrack;
 import com.wrapper.spotify.models.track.SimpleTrack;
 
+import io.reactivex.Completable;
 import io.reactivex.Observable;
 import io.reactivex.ObservableSource;
 import io.reactivex.Scheduler;
 import io.reactivex.schedulers.Schedulers;
+import io.reactivex.subjects.PublishSubject;
+import io.reactivex.subjects.Subject;
 
 @SuppressWarnings("javadoc")
 public class Spotify implements MusicService {
 
 	private static final Logger LOGGER = Logger.getLogger(Spotify.class.getName());
+	private static final String ARTIST_INDEX = "spotify.artists";
+	private static final String API_URL = "https://api.spotify.com/v1/";
 
 	private final Api api;
 	private final SpotifyFactory factory;
-	private final Scheduler requestScheduler;
+	private final ServiceExecutor requestExecutor;
+	private final int pagePrefetch;
+	private final int pageConcurrency;
+	private final boolean orderedPages;
+	private final RetryPolicy pageRetryPolicy;
+	private final ArtistIndex artistIndex;
+	private final AdaptiveRateLimiter rateLimiter;
+	private final RequestExecutor executor;
+	private final SingleFlight<String> inFlight;
+	private final Subject<PageFetchException> pageRetries;
+	// bounds the requests being executed, whatever the threads they run on
+	private final Semaphore requestPermits;
+	private final ResponseCache responses;
+	private final MicroBatcher<String, com.wrapper.spotify.models.track.Track> tracks;
+	private final MicroBatcher<String, com.wrapper.spotify.models.album.Album> albums;
+	private final MicroBatcher<String, AudioFeature> audioFeatures;
+	private final int artistIndexDistance;
+	private final boolean lazyImages;
+	// fetchers created by this service are closed with it
+	private final ImageFetcher ownedImages;
 
 	public Spotify(MusicServiceConfig config, DB cache) {
+		this(config, Collections.singletonList(cache), 
+				ImageFetcher.create(config.getImages(), ImageCache.inMemory(config.getImages())), true);
+	}
+
+	public Spotify(MusicServiceConfig config, DB cache, ImageFetcher images) {
+		this(config, Collections.singletonList(cache), images);
+	}
+
+	/**
+	 * @param shards stores used to cache responses, each response being cached in the store
+	 * selected by its hash. The first store also keeps the crawler's own indexes.
+	 */
+	public Spotify(MusicServiceConfig config, List<DB> shards, ImageFetcher images) {
+		this(config, shards, images, false);
+	}
+	
+	private Spotify(MusicServiceConfig config, List<DB> shards, ImageFetcher images, boolean ownsImages) {
+		this.ownedImages = ownsImages ? images : null;
+		this.lazyImages = config.getImages().isLazy();
+		final DB cache = shards.get(0);
 		if(cache == null) {
 			LOGGER.warning("No cache provided");
 		}
 		final SpotifyConfig sConfig = config.getSpotify();
-		final RateLimiter rateLimiter = RateLimiter.create(sConfig.getRateLimit());
+		this.rateLimiter = AdaptiveRateLimiter.shared(getName(), sConfig.getRateLimit(), sConfig.getMaxRateLimit());
+		this.inFlight = new SingleFlight<>();
+		this.pageRetries = PublishSubject.<PageFetchException>create().toSerialized();
+		// the bounded pool already caps concurrent requests, virtual threads do not
+		final boolean virtual = sConfig.isVirtualThreads() && VirtualThreads.isSupported();
+		if(sConfig.isVirtualThreads() && !virtual) {
+			LOGGER.warning("Virtual threads are not supported by this runtime, using platform threads");
+		}
+		this.requestPermits = virtual ? new Semaphore(sConfig.getMaxConcurrentRequests()) : null;
+		this.executor = new RequestExecutor() {
+			
+			@Override
+			public <T> T execute(Request<T> request) throws IOException {
+				return Spotify.this.execute(request);
+			}
+		};
 		final ClientCredentials credentials;
-		this.requestScheduler = Schedulers.io();
-		factory = new SpotifyFactory(config);
+		this.requestExecutor = virtual
+				? ServiceExecutor.virtual(getName(), sConfig.getScheduler())
+				: ServiceExecutor.bounded(getName(), sConfig.getScheduler());
+		this.responses = ResponseCache.create(config.getCache(), shards, getRequestScheduler());
+		this.pagePrefetch = sConfig.getPagePrefetch();
+		this.pageConcurrency = sConfig.getPageConcurrency();
+		this.orderedPages = !sConfig.isUnorderedPages();
+		this.pageRetryPolicy = RetryPolicy.create(sConfig.getPageRetries(), 
+				Duration.ofMillis(sConfig.getRetryBackoff()), 
+				Duration.ofMillis(sConfig.getMaxRetryBackoff()));
+		factory = new SpotifyFactory(config, images);
+		artistIndex = cache != null ? ArtistIndex.create(cache, ARTIST_INDEX) : ArtistIndex.inMemory();
+		artistIndexDistance = sConfig.getArtistIndexDistance();
 		try {
 			credentials = Api.builder()
 					.clientId(sConfig.getClientId())
@@ -67,21 +158,68 @@ public class Spotify implements MusicService {
 					.clientCredentialsGrant()
 					.build()
 					.exec();
+			// responses are cached by the crawler, not by the client
 			api = Api.builder()
 					.accessToken(credentials.getAccessToken())
-					.cache(cache)
-					.rateLimiter(rateLimiter)
+					.rateLimiter(rateLimiter.getRateLimiter())
 					.build();
 			LOGGER.info("Spotify access token: " + credentials.getAccessToken());
 			LOGGER.info("Spotify token expires in " + credentials.getExpiresIn() + " seconds");
 		} catch (IOException e) {
 			throw new RuntimeException("Cannot connect...", e);
 		}
+		final Duration batchWindow = Duration.ofMillis(sConfig.getBatchWindow());
+		// batches are cached per id, as the batch itself is unlikely to be requested again
+		tracks = new MicroBatcher<>(ids -> executeLimited(request(a -> a.getTracks(ids).build())).stream()
+				.filter(item -> item != null)
+				.collect(Collectors.toMap(com.wrapper.spotify.models.track.Track::getId, track -> track, (a, b) -> a)),
+				cachedById("tracks/", Endpoint.METADATA), TracksRequest.MAX_IDS, batchWindow, getRequestScheduler());
+		albums = new MicroBatcher<>(ids -> executeLimited(request(a -> a.getAlbums(ids).build())).stream()
+				.filter(item -> item != null)
+				.collect(Collectors.toMap(com.wrapper.spotify.models.album.Album::getId, album -> album, (a, b) -> a)),
+				cachedById("albums/", Endpoint.METADATA), AlbumsRequest.MAX_IDS, batchWindow, getRequestScheduler());
+		audioFeatures = new MicroBatcher<>(ids -> executeLimited(request(a -> a.getAudioFeatures(ids).build())).stream()
+				.filter(item -> item != null)
+				.collect(Collectors.toMap(AudioFeature::getId, feature -> feature, (a, b) -> a)),
+				cachedById("audio-features/", Endpoint.AUDIO_FEATURES), AudioFeaturesRequest.MAX_IDS, batchWindow, getRequestScheduler());
 		LOGGER.info("Spotify crawler created");
 	}
 
+	@Override
 	public Scheduler getRequestScheduler() {
-		return requestScheduler;
+		return requestExecutor.getScheduler();
+	}
+	
+	@Override
+	public ServiceExecutor getRequestExecutor() {
+		return requestExecutor;
+	}
+	
+	/**
+	 * @return number of requests that can still start before callers have to wait, or -1 if
+	 * requests run on the bounded pool, which limits them instead.
+	 */
+	public int getAvailableRequestPermits() {
+		return requestPermits != null ? requestPermits.availablePermits() : -1;
+	}
+	
+	public AdaptiveRateLimiter getRateLimiter() {
+		return rateLimiter;
+	}
+	
+	public SingleFlight<String> getInFlightRequests() {
+		return inFlight;
+	}
+	
+	/**
+	 * @return the page requests that failed and are being retried, as they happen.
+	 */
+	public Observable<PageFetchException> getPageRetries() {
+		return pageRetries;
+	}
+	
+	public ResponseCache getResponseCache() {
+		return responses;
 	}
 
 	@Override
@@ -99,24 +237,48 @@ public class Spotify implements MusicService {
 				.toString();
 		LOGGER.info("Searching for track '" + track.getLongFullTitle() + "' with query: " + query);
 		
-		return Observable.create(PageObservable.create(api, api.searchTracks(query).build()))
-				.buffer(AudioFeaturesRequest.MAX_IDS)
-				.doAfterNext(tracks -> LOGGER.info("More " + tracks.size() + " results for track: " + track.getIdAsString()))
+		return pages((a, offset) -> a.searchTracks(query).offset(offset).build())
+				.distinct(com.wrapper.spotify.models.track.Track::getId)
 				.flatMap(this::getAudioFeatures);
 	}
 
-	private Observable<Track> getAudioFeatures(List<com.wrapper.spotify.models.track.Track> tracks) {
-		try {
-			final Map<String, com.wrapper.spotify.models.track.Track> groupedTracks = tracks.stream()
-					.collect(Collectors.toMap(com.wrapper.spotify.models.track.Track::getId, track -> track));
-			final List<String> ids = Lists.newArrayList(groupedTracks.keySet());
-			final Map<String, AudioFeature> audioFeatures = api.getAudioFeatures(ids).build().exec().stream()
-					.collect(Collectors.toMap(AudioFeature::getId, audioFeature -> audioFeature));
-			return Observable.fromIterable(groupedTracks.keySet())
-					.map(id -> factory.toTrack(groupedTracks.get(id), audioFeatures.get(id)));
-		} catch (IOException e) {
-			throw new RuntimeException(e);
-		}
+	private Observable<Track> getAudioFeatures(com.wrapper.spotify.models.track.Track track) {
+		return batched(audioFeatures, track.getId())
+				.map(feature -> factory.toTrack(track, feature.orElse(null)));
+	}
+	
+	// keyed like the request for that single id, whatever the batch it was fetched in
+	private <T> MicroBatcher.KeyCache<String, T> cachedById(String path, Endpoint endpoint) {
+		return new MicroBatcher.KeyCache<String, T>() {
+
+			@Override
+			public T getIfPresent(String id, Runnable refresh) {
+				return responses.getIfPresent(API_URL + path + id, endpoint, refresh);
+			}
+
+			@Override
+			public void put(String id, T value) {
+				responses.put(API_URL + path + id, value);
+			}
+		};
+	}
+	
+	private <T> Observable<Optional<T>> batched(MicroBatcher<String, T> batcher, String id) {
+		return Observable.<Optional<T>>create(emitter -> batcher.get(id).whenComplete((result, error) -> {
+			if(error != null) {
+				emitter.onError(error);
+			}
+			else {
+				emitter.onNext(result);
+				emitter.onComplete();
+			}
+		})).observeOn(getRequestScheduler());
+	}
+	
+	private <T> Observable<T> batchedPresent(MicroBatcher<String, T> batcher, String id) {
+		return batched(batcher, id)
+				.filter(Optional::isPresent)
+				.map(Optional::get);
 	}
 
 	@Override
@@ -127,25 +289,24 @@ public class Spotify implements MusicService {
 		}
 		LOGGER.info("Fetching for artist tracks: " + id);
 
-		return Observable.create(PageObservable.create(api, api.getAlbumsForArtist(id).build()))
-				.observeOn(getRequestScheduler())
-				.map(SimpleAlbum::getId)
-				.distinctUntilChanged()
-				.buffer(AlbumsRequest.MAX_IDS)
-				.map(ids -> api.getAlbums(ids).build())
-				.flatMap(this::asyncRequest)
-				.flatMap(Observable::fromIterable)
+		return getArtistAlbums(id)
 				.map(com.wrapper.spotify.models.album.Album::getTracks)
-				.flatMap(page -> Observable.create(PageObservable.create(api, page))
+				.flatMap(page -> pages(page)
 						.observeOn(getRequestScheduler()))
 				.filter(t -> containsArtist(t, id))
 				.map(SimpleTrack::getId)
-				.buffer(TracksRequest.MAX_IDS)
-				.map(ids -> api.getTracks(ids).build())
-				.flatMap(this::asyncRequest)
-				.flatMap(Observable::fromIterable)
+				.flatMap(trackId -> batchedPresent(tracks, trackId))
 				.map(factory::toTrack);
 	}
+	
+	private Observable<com.wrapper.spotify.models.album.Album> getArtistAlbums(String id) {
+		return pages((a, offset) -> a.getAlbumsForArtist(id).offset(offset).build())
+				.observeOn(getRequestScheduler())
+				.map(SimpleAlbum::getId)
+				// the same album is listed once per market
+				.distinct()
+				.flatMap(albumId -> batchedPresent(albums, albumId));
+	}
 
 	private boolean containsArtist(SimpleTrack t, String id) {
 		return t.getArtists().stream()
@@ -161,11 +322,26 @@ public class Spotify implements MusicService {
 	@Override
 	public Observable<Artist> searchArtist(Artist artist) {
 		final String query = artist.getName();
+		final Optional<String> knownId = artistIndex.find(query, artistIndexDistance);
+		if(knownId.isPresent()) {
+			LOGGER.info("Artist '" + query + "' found in the local index: " + knownId.get());
+			return Observable.just(request(a -> a.getArtist(knownId.get()).build()))
+					.flatMap(this::asyncRequest)
+					.map(factory::toArtist)
+					.flatMap(Observable::fromIterable)
+					.concatMapEager(this::withPicture);
+		}
 		LOGGER.info("Searching artist with query: " + query);
-		return Observable.create(PageObservable.create(api, api.searchArtists(query).build()))
+		return pages((a, offset) -> a.searchArtists(query).offset(offset).build())
 				.observeOn(getRequestScheduler())
+				.doOnNext(this::indexArtist)
 				.map(factory::toArtist)
-				.flatMap(Observable::fromIterable);
+				.flatMap(Observable::fromIterable)
+				.concatMapEager(this::withPicture);
+	}
+
+	private void indexArtist(SimpleArtist artist) {
+		artistIndex.add(artist.getName(), artist.getId());
 	}
 
 	@Override
@@ -175,11 +351,13 @@ public class Spotify implements MusicService {
 			throw new RuntimeException("Cannot find id for artist: " + artist.getName());
 		}
 		LOGGER.info("Searching for related artists of artist: " + id);
-		return Observable.just(api.getArtistRelatedArtists(id).build())
+		return Observable.just(request(a -> a.getArtistRelatedArtists(id).build()))
 				.flatMap(this::asyncRequest)
 				.flatMap(Observable::fromIterable)
+				.doOnNext(this::indexArtist)
 				.map(factory::toArtist)
-				.flatMap(Observable::fromIterable);
+				.flatMap(Observable::fromIterable)
+				.concatMapEager(this::withPicture);
 	}
 
 	@Override
@@ -190,14 +368,12 @@ public class Spotify implements MusicService {
 				.append(" artist:")
 				.append(artist != null ? artist.getName() : "*");
 		LOGGER.info("Searching for albums with query: " + query);
-		return Observable.create(PageObservable.create(api, api.searchAlbums(query.toString()).build()))
+		return pages((a, offset) -> a.searchAlbums(query.toString()).offset(offset).build())
 				.observeOn(getRequestScheduler())
 				.map(SimpleAlbum::getId)
-				.buffer(AlbumsRequest.MAX_IDS)
-				.map(ids -> api.getAlbums(ids).build())
-				.flatMap(this::asyncRequest)
-				.flatMap(Observable::fromIterable)
-				.map(factory::toAlbum);
+				.flatMap(albumId -> batchedPresent(albums, albumId))
+				.map(factory::toAlbum)
+				.concatMapEager(this::withCover);
 	}
 
 	@Override
@@ -207,21 +383,115 @@ public class Spotify implements MusicService {
 			throw new RuntimeException("Cannot find id for album: " + album.getTitle());
 		}
 		LOGGER.info("Searching for related artists of artist: " + id);
-		return Observable.just(api.getAlbum(id).build())
+		return Observable.just(request(a -> a.getAlbum(id).build()))
 				.flatMap(this::asyncRequest)
-				.flatMap(a -> Observable.create(PageObservable.create(api, a.getTracks()))
+				.flatMap(a -> pages(a.getTracks())
 						.observeOn(getRequestScheduler()))
 				.map(SimpleTrack::getId)
-				.buffer(TracksRequest.MAX_IDS)
-				.map(ids -> api.getTracks(ids).build())
-				.flatMap(this::asyncRequest)
-				.flatMap(Observable::fromIterable)
+				.flatMap(trackId -> batchedPresent(tracks, trackId))
 				.map(factory::toTrack);
 	}
 
+	@Override
+	public Completable loadCover(Album album) {
+		return Completable.defer(() -> completable(factory.loadCover(album)));
+	}
+
+	@Override
+	public Completable loadPicture(Artist artist) {
+		return Completable.defer(() -> completable(factory.loadPicture(artist)));
+	}
+	
+	private Completable completable(CompletableFuture<?> future) {
+		return Completable.create(emitter -> future.whenComplete((result, error) -> {
+			if(error != null) {
+				emitter.onError(error);
+			}
+			else {
+				emitter.onComplete();
+			}
+		}));
+	}
+
+	private <T> Observable<T> pages(BiFunction<Api, Integer, Request<Page<T>>> factory) {
+		return pages(PageObservable.create(api, factory.apply(api, 0))
+				.withOffsetRequests(offset -> factory.apply(api, offset)));
+	}
+	
+	private <T> Observable<T> pages(Page<T> page) {
+		return pages(PageObservable.create(api, page));
+	}
+	
+	private <T> Observable<T> pages(PageObservable<T> pages) {
+		return Observable.create(pages
+				.withPrefetch(pagePrefetch)
+				.withConcurrency(pageConcurrency)
+				.withOrdered(orderedPages)
+				.withRetryPolicy(pageRetryPolicy)
+				.withExecutor(executor)
+				.withRetryListener(pageRetries::onNext)
+				.withScheduler(getRequestScheduler()))
+				// the drain waits for pages fetched on the request scheduler, so it must not hold
+				// one of its threads
+				.subscribeOn(Schedulers.io());
+	}
+
 	private <T> ObservableSource<T> asyncRequest(Request<T> request) {
-		return Observable.fromCallable(() -> request.exec())
-				.observeOn(getRequestScheduler());
+		// the blocking call itself must run on the request scheduler, not just its result
+		return Observable.fromCallable(() -> execute(request))
+				.subscribeOn(getRequestScheduler());
+	}
+	
+	private <T> Request<T> request(Function<Api, Request<T>> factory) {
+		return factory.apply(api);
+	}
+	
+	private <T> T execute(Request<T> request) throws IOException {
+		final String key = requestKey(request);
+		if(key == null) {
+			return executeLimited(request);
+		}
+		return responses.get(key, Endpoint.of(request.toUrl()), 
+				() -> inFlight.execute(key, () -> executeLimited(request)), 
+				() -> executeLimited(request));
+	}
+	
+	private String requestKey(Request<?> request) {
+		final URL url = request.toUrl();
+		if(url == null) {
+			return null;
+		}
+		final String body = request.getBody();
+		return body == null ? url.toString() : url + "\n" + body;
+	}
+	
+	private <T> T executeLimited(Request<T> request) throws IOException {
+		if(requestPermits == null) {
+			return executeRated(request);
+		}
+		try {
+			requestPermits.acquire();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new InterruptedIOException("Interrupted while waiting to request " + request.toUrl());
+		}
+		try {
+			return executeRated(request);
+		} finally {
+			requestPermits.release();
+		}
+	}
+	
+	private <T> T executeRated(Request<T> request) throws IOException {
+		rateLimiter.beforeRequest();
+		try {
+			final T response = request.exec();
+			rateLimiter.onSuccess();
+			return response;
+		} catch (IOException | RuntimeException e) {
+			rateLimiter.onError(e);
+			throw e;
+		}
 	}
 
 	@Override
@@ -239,10 +509,10 @@ public class Spotify implements MusicService {
 	@Override
 	public Observable<Track> topTracks() {
 		LOGGER.info("Fetching top tracks");
-		return Observable.just(api.getPlaylist("spotify", "37i9dQZF1DXcBWIGoYBM5M").build())
+		return Observable.just(request(a -> a.getPlaylist("spotify", "37i9dQZF1DXcBWIGoYBM5M").build()))
 				.flatMap(this::asyncRequest)
 				.map(Playlist::getTracks)
-				.flatMap(page -> Observable.create(PageObservable.create(api, page))
+				.flatMap(page -> pages(page)
 						.observeOn(getRequestScheduler()))
 				.map(PlaylistTrack::getTrack)
 				.map(factory::toTrack);
@@ -251,10 +521,10 @@ public class Spotify implements MusicService {
 	@Override
 	public Observable<Artist> topArtists() {
 		LOGGER.info("Fetching top artists");
-		return Observable.just(api.getPlaylist("spotifycharts", "37i9dQZEVXbMDoHDwVN2tF").build())
+		return Observable.just(request(a -> a.getPlaylist("spotifycharts", "37i9dQZEVXbMDoHDwVN2tF").build()))
 				.flatMap(this::asyncRequest)
 				.map(Playlist::getTracks)
-				.flatMap(page -> Observable.create(PageObservable.create(api, page))
+				.flatMap(page -> pages(page)
 						.observeOn(getRequestScheduler()))
 				.map(PlaylistTrack::getTrack)
 				.map(factory::toTrack)
@@ -265,19 +535,38 @@ public class Spotify implements MusicService {
 	@Override
 	public Observable<Album> topAlbums() {
 		LOGGER.info("Fetching top albums");
-		return Observable.just(api.getPlaylist("spotify", "37i9dQZF1DX0rV7skaITBo").build())
+		return Observable.just(request(a -> a.getPlaylist("spotify", "37i9dQZF1DX0rV7skaITBo").build()))
 				.flatMap(this::asyncRequest)
 				.map(Playlist::getTracks)
-				.flatMap(page -> Observable.create(PageObservable.create(api, page))
+				.flatMap(page -> pages(page)
 						.observeOn(getRequestScheduler()))
 				.map(PlaylistTrack::getTrack)
 				.map(com.wrapper.spotify.models.track.Track::getAlbum)
 				.map(SimpleAlbum::getId)
-				.buffer(AlbumsRequest.MAX_IDS)
-				.map(ids -> api.getAlbums(ids).build())
-				.flatMap(this::asyncRequest)
-				.flatMap(Observable::fromIterable)
-				.map(factory::toAlbum);
+				.flatMap(albumId -> batchedPresent(albums, albumId))
+				.map(factory::toAlbum)
+				.concatMapEager(this::withCover);
+	}
+	
+	private Observable<Album> withCover(Album album) {
+		return lazyImages ? Observable.just(album) : loadCover(album)
+				.onErrorComplete()
+				.andThen(Observable.just(album));
+	}
+	
+	private Observable<Artist> withPicture(Artist artist) {
+		return lazyImages ? Observable.just(artist) : loadPicture(artist)
+				.onErrorComplete()
+				.andThen(Observable.just(artist));
+	}
+
+	@Override
+	public void close() throws IOException {
+		requestExecutor.close();
+		factory.close();
+		if(ownedImages != null) {
+			ownedImages.close();
+		}
 	}
 
 }
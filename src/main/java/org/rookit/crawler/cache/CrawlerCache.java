@@ -0,0 +1,56 @@
+package org.rookit.crawler.cache;
+
+import java.io.Closeable;
+import java.io.File;
+import java.util.List;
+
+import org.mapdb.DB;
+import org.mapdb.DBMaker;
+import org.rookit.crawler.config.CacheConfig;
+
+import com.google.common.collect.Lists;
+import com.google.common.hash.Hashing;
+
+@SuppressWarnings("javadoc")
+public interface CrawlerCache extends Closeable {
+	
+	static CrawlerCache create(String path, CacheConfig config) {
+		final int shardCount = config.getShards();
+		final List<DB> shards = Lists.newArrayListWithCapacity(shardCount);
+		for(int i = 0; i < shardCount; i++) {
+			// a single shard keeps the original file, so existing caches remain valid
+			final File file = new File(shardCount == 1 ? path : path + "." + i);
+			if(file.getParentFile() != null) {
+				file.getParentFile().mkdirs();
+			}
+			shards.add(DBMaker.fileDB(file)
+					.fileMmapEnable()
+					.make());
+		}
+		return new CrawlerCacheImpl(shards, config);
+	}
+	
+	static int shardOf(String key, int shardCount) {
+		return Hashing.consistentHash(Hashing.murmur3_32().hashUnencodedChars(key), shardCount);
+	}
+	
+	List<DB> getShards();
+	
+	long getSize();
+	
+	long getFreeSize();
+	
+	double getFragmentation();
+	
+	long getEvictions();
+	
+	long getCompactions();
+	
+	/**
+	 * Evicts the oldest responses while the cache is above its maximum size, and compacts the
+	 * shards that are too fragmented. Compacting a shard blocks its readers and writers until it
+	 * completes, so more shards keep each pause shorter.
+	 */
+	void maintain();
+
+}
@@ -0,0 +1,175 @@
+package org.rookit.crawler.cache;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.stream.Collectors;
+
+import org.mapdb.DB;
+import org.mapdb.Store;
+import org.mapdb.StoreDirect;
+import org.rookit.crawler.config.CacheConfig;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Maps;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+class CrawlerCacheImpl implements CrawlerCache {
+	
+	private static final Logger LOGGER = Logger.getLogger(CrawlerCacheImpl.class.getName());
+	// share of the cached responses evicted on each round, oldest first
+	private static final double EVICTION_RATIO = 0.1;
+	private static final int MAX_EVICTION_ROUNDS = 10;
+	
+	private final List<DB> shards;
+	private final long maxSize;
+	private final double compactionThreshold;
+	private final ScheduledExecutorService maintenance;
+	private final AtomicLong evictions;
+	private final AtomicLong compactions;
+	
+	CrawlerCacheImpl(List<DB> shards, CacheConfig config) {
+		this.shards = ImmutableList.copyOf(shards);
+		this.maxSize = config.getMaxSize();
+		this.compactionThreshold = config.getCompactionThreshold();
+		this.evictions = new AtomicLong();
+		this.compactions = new AtomicLong();
+		this.maintenance = Executors.newSingleThreadScheduledExecutor(new ThreadFactoryBuilder()
+				.setNameFormat("cache-maintenance-%d")
+				.setDaemon(true)
+				.build());
+		final long interval = config.getMaintenanceInterval();
+		maintenance.scheduleWithFixedDelay(this::maintainQuietly, interval, interval, TimeUnit.MILLISECONDS);
+	}
+
+	@Override
+	public List<DB> getShards() {
+		return shards;
+	}
+	
+	private Optional<StoreDirect> getStore(DB shard) {
+		final Store store = shard.getStore();
+		return store instanceof StoreDirect ? Optional.of((StoreDirect) store) : Optional.empty();
+	}
+	
+	private long getSize(DB shard) {
+		return getStore(shard).map(StoreDirect::getTotalSize).orElse(0L);
+	}
+	
+	private long getFreeSize(DB shard) {
+		return getStore(shard).map(StoreDirect::getFreeSize).orElse(0L);
+	}
+
+	@Override
+	public long getSize() {
+		return shards.stream().mapToLong(this::getSize).sum();
+	}
+
+	@Override
+	public long getFreeSize() {
+		return shards.stream().mapToLong(this::getFreeSize).sum();
+	}
+
+	@Override
+	public double getFragmentation() {
+		final long size = getSize();
+		return size == 0 ? 0 : (double) getFreeSize() / size;
+	}
+
+	@Override
+	public long getEvictions() {
+		return evictions.get();
+	}
+
+	@Override
+	public long getCompactions() {
+		return compactions.get();
+	}
+	
+	private void maintainQuietly() {
+		try {
+			maintain();
+		} catch (RuntimeException e) {
+			LOGGER.log(Level.WARNING, "Cache maintenance failed", e);
+		}
+	}
+
+	@Override
+	public synchronized void maintain() {
+		if(shards.stream().anyMatch(DB::isClosed)) {
+			return;
+		}
+		for(int round = 0; round < MAX_EVICTION_ROUNDS && getSize() - getFreeSize() > maxSize; round++) {
+			if(evict() == 0) {
+				LOGGER.warning("Cache is above its maximum size, but no stored response is left to evict");
+				break;
+			}
+			shards.forEach(this::compact);
+		}
+		// compacting a shard locks it, blocking its readers until it is done. Shards are compacted
+		// one at a time, so the others keep serving requests
+		for(DB shard : shards) {
+			final long size = getSize(shard);
+			if(size > 0 && (double) getFreeSize(shard) / size > compactionThreshold) {
+				compact(shard);
+			}
+		}
+	}
+	
+	private void compact(DB shard) {
+		LOGGER.info("Compacting cache shard: " + getSize(shard) + " bytes, " + getFreeSize(shard) + " free");
+		shard.getStore().compact();
+		compactions.incrementAndGet();
+	}
+	
+	private int evict() {
+		int evicted = 0;
+		for(DB shard : shards) {
+			evicted += evictOldest(shard);
+		}
+		evictions.addAndGet(evicted);
+		return evicted;
+	}
+	
+	private int evictOldest(DB shard) {
+		if(!shard.exists(TieredResponseCache.RESPONSES)) {
+			return 0;
+		}
+		final Map<String, Object> responses = TieredResponseCache.responsesOf(shard);
+		final Map<String, Long> fetchedAt = TieredResponseCache.fetchedAtOf(shard);
+		final Map<String, Long> ages = Maps.newHashMapWithExpectedSize(responses.size());
+		for(String key : responses.keySet()) {
+			// responses stored without their age are already served as stale, so they go first
+			ages.put(key, fetchedAt.getOrDefault(key, 0L));
+		}
+		final List<String> oldest = ages.entrySet().stream()
+				.sorted(Map.Entry.comparingByValue())
+				.limit(Math.max(1, (long) (ages.size() * EVICTION_RATIO)))
+				.map(Map.Entry::getKey)
+				.collect(Collectors.toList());
+		int evicted = 0;
+		for(String key : oldest) {
+			if(responses.remove(key) != null) {
+				evicted++;
+			}
+			fetchedAt.remove(key);
+		}
+		return evicted;
+	}
+
+	@Override
+	public void close() throws IOException {
+		maintenance.shutdownNow();
+		synchronized (this) {
+			shards.forEach(DB::close);
+		}
+	}
+
+}
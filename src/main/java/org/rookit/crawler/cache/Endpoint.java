@@ -0,0 +1,57 @@
+package org.rookit.crawler.cache;
+
+import java.net.URL;
+
+import org.rookit.crawler.config.CacheConfig;
+
+@SuppressWarnings("javadoc")
+public enum Endpoint {
+	
+	SEARCH,
+	DISCOGRAPHY,
+	PLAYLISTS,
+	RELATED_ARTISTS,
+	AUDIO_FEATURES,
+	METADATA;
+	
+	public static Endpoint of(URL url) {
+		final String path = url.getPath();
+		if(path.contains("/search")) {
+			return SEARCH;
+		}
+		if(path.contains("/related-artists")) {
+			return RELATED_ARTISTS;
+		}
+		if(path.contains("/audio-features")) {
+			return AUDIO_FEATURES;
+		}
+		if(path.contains("/playlists")) {
+			return PLAYLISTS;
+		}
+		if(path.contains("/artists/") && path.endsWith("/albums")) {
+			return DISCOGRAPHY;
+		}
+		return METADATA;
+	}
+	
+	/**
+	 * @return time to live, in milliseconds, of the responses of this endpoint.
+	 */
+	public long getTtl(CacheConfig config) {
+		switch(this) {
+		case SEARCH:
+			return config.getSearchTtl();
+		case DISCOGRAPHY:
+			return config.getDiscographyTtl();
+		case PLAYLISTS:
+			return config.getPlaylistsTtl();
+		case RELATED_ARTISTS:
+			return config.getRelatedArtistsTtl();
+		case AUDIO_FEATURES:
+			return config.getAudioFeaturesTtl();
+		default:
+			return config.getMetadataTtl();
+		}
+	}
+
+}
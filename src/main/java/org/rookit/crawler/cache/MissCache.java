@@ -0,0 +1,36 @@
+package org.rookit.crawler.cache;
+
+import java.io.Closeable;
+import java.io.File;
+
+import org.mapdb.DBMaker;
+import org.rookit.crawler.config.CacheConfig;
+
+@SuppressWarnings("javadoc")
+public interface MissCache extends Closeable {
+	
+	static MissCache create(CacheConfig config) {
+		final File file = new File(config.getMissCachePath());
+		if(file.getParentFile() != null) {
+			file.getParentFile().mkdirs();
+		}
+		return new MissCacheImpl(DBMaker.fileDB(file)
+				.fileMmapEnableIfSupported()
+				.make(), config.getMissTtl());
+	}
+	
+	static MissCache inMemory(CacheConfig config) {
+		return new MissCacheImpl(DBMaker.heapDB().make(), config.getMissTtl());
+	}
+	
+	boolean isKnownMiss(String service, String query);
+	
+	void recordMiss(String service, String query);
+	
+	void clear(String service, String query);
+	
+	long getHits();
+	
+	long getSize();
+
+}
@@ -0,0 +1,72 @@
+package org.rookit.crawler.cache;
+
+import java.io.IOException;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.mapdb.DB;
+import org.mapdb.HTreeMap;
+import org.mapdb.Serializer;
+
+class MissCacheImpl implements MissCache {
+	
+	private static final String MISSES = "misses";
+	
+	private final DB db;
+	// when each miss was recorded
+	private final HTreeMap<String, Long> misses;
+	private final long ttl;
+	private final AtomicLong hits;
+	
+	MissCacheImpl(DB db, long ttl) {
+		this.db = db;
+		this.misses = db.hashMap(MISSES, Serializer.STRING, Serializer.LONG)
+				.expireAfterCreate(ttl, TimeUnit.MILLISECONDS)
+				.expireAfterUpdate(ttl, TimeUnit.MILLISECONDS)
+				.createOrOpen();
+		this.ttl = ttl;
+		this.hits = new AtomicLong();
+	}
+	
+	private String key(String service, String query) {
+		return service + ':' + query.toLowerCase(Locale.ROOT).replaceAll("\\s+", " ").trim();
+	}
+
+	@Override
+	public boolean isKnownMiss(String service, String query) {
+		final Long recorded = misses.get(key(service, query));
+		// MapDB removes expired entries lazily, so their age is checked here
+		if(recorded != null && System.currentTimeMillis() - recorded <= ttl) {
+			hits.incrementAndGet();
+			return true;
+		}
+		return false;
+	}
+
+	@Override
+	public void recordMiss(String service, String query) {
+		misses.put(key(service, query), System.currentTimeMillis());
+	}
+
+	@Override
+	public void clear(String service, String query) {
+		misses.remove(key(service, query));
+	}
+
+	@Override
+	public long getHits() {
+		return hits.get();
+	}
+
+	@Override
+	public long getSize() {
+		return misses.sizeLong();
+	}
+
+	@Override
+	public void close() throws IOException {
+		db.close();
+	}
+
+}
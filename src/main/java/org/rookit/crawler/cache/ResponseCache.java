@@ -0,0 +1,61 @@
+package org.rookit.crawler.cache;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.mapdb.DB;
+import org.mapdb.DBMaker;
+import org.rookit.crawler.config.CacheConfig;
+
+import com.google.common.cache.CacheStats;
+
+import io.reactivex.Scheduler;
+
+@SuppressWarnings("javadoc")
+public interface ResponseCache {
+	
+	/**
+	 * @param shards stores that keep the responses, each one in the store selected by the hash
+	 * of its key.
+	 */
+	static ResponseCache create(CacheConfig config, List<DB> shards, Scheduler scheduler) {
+		return new TieredResponseCache(config, shards.stream()
+				.map(db -> db != null ? db : DBMaker.heapDB().make())
+				.collect(Collectors.toList()), scheduler);
+	}
+	
+	@FunctionalInterface
+	interface Loader<T> {
+		T load() throws IOException;
+	}
+	
+	/**
+	 * @param refresher loads the response from the network, or null if it cannot be refreshed.
+	 */
+	<T> T get(String key, Endpoint endpoint, Loader<T> loader, Loader<T> refresher) throws IOException;
+	
+	/**
+	 * @param refresh loads the response again and {@link #put(String, Object) puts} it, called when
+	 * the cached response is stale.
+	 * @return the cached response, or null if it is not cached.
+	 */
+	<T> T getIfPresent(String key, Endpoint endpoint, Runnable refresh);
+	
+	void put(String key, Object response);
+	
+	void invalidate(String key);
+	
+	void invalidateAll();
+	
+	CacheStats getHeapStats();
+	
+	long getHeapSize();
+	
+	long getLoads();
+	
+	long getStaleHits();
+	
+	long getRefreshes();
+
+}
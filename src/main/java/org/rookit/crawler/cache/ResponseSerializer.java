@@ -0,0 +1,357 @@
+package org.rookit.crawler.cache;
+
+import java.io.IOException;
+import java.lang.reflect.Array;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.mapdb.DataInput2;
+import org.mapdb.DataOutput2;
+import org.mapdb.Serializer;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
+
+/**
+ * Writes response models field by field, as they are plain beans that do not implement
+ * {@link java.io.Serializable}. Models need a no-argument constructor, and their fields may hold
+ * strings, primitives, enums, dates, arrays, lists, sets, maps or other models.
+ */
+class ResponseSerializer implements Serializer<Object> {
+
+	private static final int NULL = 0;
+	private static final int STRING = 1;
+	private static final int INTEGER = 2;
+	private static final int LONG = 3;
+	private static final int DOUBLE = 4;
+	private static final int FLOAT = 5;
+	private static final int BOOLEAN = 6;
+	private static final int SHORT = 7;
+	private static final int BYTE = 8;
+	private static final int CHAR = 9;
+	private static final int DATE = 10;
+	private static final int ENUM = 11;
+	private static final int ARRAY = 12;
+	private static final int LIST = 13;
+	private static final int SET = 14;
+	private static final int MAP = 15;
+	private static final int MODEL = 16;
+
+	private final Map<Class<?>, List<Field>> fields;
+
+	ResponseSerializer() {
+		this.fields = new ConcurrentHashMap<>();
+	}
+
+	@Override
+	public void serialize(DataOutput2 out, Object value) throws IOException {
+		write(out, value);
+	}
+
+	@Override
+	public Object deserialize(DataInput2 in, int available) throws IOException {
+		return read(in);
+	}
+
+	private void write(DataOutput2 out, Object value) throws IOException {
+		if(value == null) {
+			out.packInt(NULL);
+		}
+		else if(value instanceof String) {
+			out.packInt(STRING);
+			writeString(out, (String) value);
+		}
+		else if(value instanceof Integer) {
+			out.packInt(INTEGER);
+			out.writeInt((Integer) value);
+		}
+		else if(value instanceof Long) {
+			out.packInt(LONG);
+			out.writeLong((Long) value);
+		}
+		else if(value instanceof Double) {
+			out.packInt(DOUBLE);
+			out.writeDouble((Double) value);
+		}
+		else if(value instanceof Float) {
+			out.packInt(FLOAT);
+			out.writeFloat((Float) value);
+		}
+		else if(value instanceof Boolean) {
+			out.packInt(BOOLEAN);
+			out.writeBoolean((Boolean) value);
+		}
+		else if(value instanceof Short) {
+			out.packInt(SHORT);
+			out.writeShort((Short) value);
+		}
+		else if(value instanceof Byte) {
+			out.packInt(BYTE);
+			out.writeByte((Byte) value);
+		}
+		else if(value instanceof Character) {
+			out.packInt(CHAR);
+			out.writeChar((Character) value);
+		}
+		else if(value instanceof Date) {
+			out.packInt(DATE);
+			out.writeLong(((Date) value).getTime());
+		}
+		else if(value instanceof Enum) {
+			out.packInt(ENUM);
+			writeString(out, ((Enum<?>) value).getDeclaringClass().getName());
+			writeString(out, ((Enum<?>) value).name());
+		}
+		else if(value.getClass().isArray()) {
+			out.packInt(ARRAY);
+			writeString(out, value.getClass().getComponentType().getName());
+			final int length = Array.getLength(value);
+			out.packInt(length);
+			for(int i = 0; i < length; i++) {
+				write(out, Array.get(value, i));
+			}
+		}
+		else if(value instanceof List) {
+			out.packInt(LIST);
+			writeAll(out, (List<?>) value);
+		}
+		else if(value instanceof Set) {
+			out.packInt(SET);
+			writeAll(out, (Set<?>) value);
+		}
+		else if(value instanceof Map) {
+			out.packInt(MAP);
+			final Map<?, ?> map = (Map<?, ?>) value;
+			out.packInt(map.size());
+			for(Map.Entry<?, ?> entry : map.entrySet()) {
+				write(out, entry.getKey());
+				write(out, entry.getValue());
+			}
+		}
+		else {
+			out.packInt(MODEL);
+			writeModel(out, value);
+		}
+	}
+
+	private void writeAll(DataOutput2 out, Collection<?> values) throws IOException {
+		out.packInt(values.size());
+		for(Object value : values) {
+			write(out, value);
+		}
+	}
+
+	private void writeModel(DataOutput2 out, Object model) throws IOException {
+		final Class<?> type = model.getClass();
+		if(type.getName().startsWith("java.")) {
+			throw new IOException("Cannot serialize " + type.getName());
+		}
+		writeString(out, type.getName());
+		final List<Field> modelFields = fieldsOf(type);
+		out.packInt(modelFields.size());
+		for(Field field : modelFields) {
+			writeString(out, field.getName());
+			try {
+				write(out, field.get(model));
+			} catch (IllegalAccessException e) {
+				throw new IOException("Cannot read " + type.getName() + "." + field.getName(), e);
+			}
+		}
+	}
+
+	private void writeString(DataOutput2 out, String value) throws IOException {
+		final byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+		out.packInt(bytes.length);
+		out.write(bytes);
+	}
+
+	private Object read(DataInput2 in) throws IOException {
+		final int tag = in.unpackInt();
+		switch(tag) {
+		case NULL:
+			return null;
+		case STRING:
+			return readString(in);
+		case INTEGER:
+			return in.readInt();
+		case LONG:
+			return in.readLong();
+		case DOUBLE:
+			return in.readDouble();
+		case FLOAT:
+			return in.readFloat();
+		case BOOLEAN:
+			return in.readBoolean();
+		case SHORT:
+			return in.readShort();
+		case BYTE:
+			return in.readByte();
+		case CHAR:
+			return in.readChar();
+		case DATE:
+			return new Date(in.readLong());
+		case ENUM:
+			return readEnum(in);
+		case ARRAY:
+			return readArray(in);
+		case LIST:
+			return readAll(in, Lists.newArrayList());
+		case SET:
+			return readAll(in, Sets.newLinkedHashSet());
+		case MAP:
+			return readMap(in);
+		case MODEL:
+			return readModel(in);
+		default:
+			throw new IOException("Unknown response tag: " + tag);
+		}
+	}
+
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	private Object readEnum(DataInput2 in) throws IOException {
+		final Class<?> type = classOf(readString(in));
+		final String name = readString(in);
+		if(!type.isEnum()) {
+			throw new IOException("Not an enum: " + type.getName());
+		}
+		return Enum.valueOf((Class<? extends Enum>) type, name);
+	}
+
+	private Object readArray(DataInput2 in) throws IOException {
+		final Class<?> component = componentOf(readString(in));
+		final int length = in.unpackInt();
+		final Object array = Array.newInstance(component, length);
+		for(int i = 0; i < length; i++) {
+			Array.set(array, i, read(in));
+		}
+		return array;
+	}
+
+	private <C extends Collection<Object>> C readAll(DataInput2 in, C values) throws IOException {
+		final int size = in.unpackInt();
+		for(int i = 0; i < size; i++) {
+			values.add(read(in));
+		}
+		return values;
+	}
+
+	private Map<Object, Object> readMap(DataInput2 in) throws IOException {
+		final int size = in.unpackInt();
+		final Map<Object, Object> map = Maps.newLinkedHashMapWithExpectedSize(size);
+		for(int i = 0; i < size; i++) {
+			final Object key = read(in);
+			map.put(key, read(in));
+		}
+		return map;
+	}
+
+	private Object readModel(DataInput2 in) throws IOException {
+		final Class<?> type = classOf(readString(in));
+		final Object model = instantiate(type);
+		final int size = in.unpackInt();
+		for(int i = 0; i < size; i++) {
+			final String name = readString(in);
+			final Object value = read(in);
+			final Field field = fieldOf(type, name);
+			// fields removed from the model since the response was stored are skipped
+			if(field != null) {
+				try {
+					field.set(model, value);
+				} catch (IllegalAccessException | IllegalArgumentException e) {
+					throw new IOException("Cannot set " + type.getName() + "." + name, e);
+				}
+			}
+		}
+		return model;
+	}
+
+	private Object instantiate(Class<?> type) throws IOException {
+		try {
+			final Constructor<?> constructor = type.getDeclaredConstructor();
+			constructor.setAccessible(true);
+			return constructor.newInstance();
+		} catch (ReflectiveOperationException e) {
+			throw new IOException("Cannot create " + type.getName() + ", it needs a no-argument constructor", e);
+		}
+	}
+
+	private String readString(DataInput2 in) throws IOException {
+		final byte[] bytes = new byte[in.unpackInt()];
+		in.readFully(bytes);
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+
+	private Class<?> classOf(String name) throws IOException {
+		try {
+			return Class.forName(name, false, getClass().getClassLoader());
+		} catch (ClassNotFoundException e) {
+			throw new IOException("Unknown response class: " + name, e);
+		}
+	}
+
+	private Class<?> componentOf(String name) throws IOException {
+		switch(name) {
+		case "int":
+			return int.class;
+		case "long":
+			return long.class;
+		case "double":
+			return double.class;
+		case "float":
+			return float.class;
+		case "boolean":
+			return boolean.class;
+		case "short":
+			return short.class;
+		case "byte":
+			return byte.class;
+		case "char":
+			return char.class;
+		default:
+			return classOf(name);
+		}
+	}
+
+	private Field fieldOf(Class<?> type, String name) {
+		for(Field field : fieldsOf(type)) {
+			if(field.getName().equals(name)) {
+				return field;
+			}
+		}
+		return null;
+	}
+
+	private List<Field> fieldsOf(Class<?> type) {
+		return fields.computeIfAbsent(type, this::collectFields);
+	}
+
+	private List<Field> collectFields(Class<?> type) {
+		final ImmutableList.Builder<Field> collected = ImmutableList.builder();
+		for(Class<?> current = type; current != null && current != Object.class; current = current.getSuperclass()) {
+			for(Field field : current.getDeclaredFields()) {
+				final int modifiers = field.getModifiers();
+				if(!Modifier.isStatic(modifiers) && !Modifier.isTransient(modifiers) && !field.isSynthetic()) {
+					field.setAccessible(true);
+					collected.add(field);
+				}
+			}
+		}
+		return collected.build();
+	}
+
+	@Override
+	public boolean isTrusted() {
+		return true;
+	}
+
+}
@@ -0,0 +1,241 @@
+package org.rookit.crawler.cache;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.stream.Collectors;
+
+import org.mapdb.DB;
+import org.mapdb.Serializer;
+import org.rookit.crawler.config.CacheConfig;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+
+import io.reactivex.Scheduler;
+
+class TieredResponseCache implements ResponseCache {
+
+	private static final Logger LOGGER = Logger.getLogger(TieredResponseCache.class.getName());
+	static final String FETCHED_AT = "responses.fetchedAt";
+	static final String RESPONSES = "responses.bodies";
+	private static final ResponseSerializer SERIALIZER = new ResponseSerializer();
+
+	static Map<String, Object> responsesOf(DB shard) {
+		return shard.hashMap(RESPONSES, Serializer.STRING, SERIALIZER).createOrOpen();
+	}
+
+	static Map<String, Long> fetchedAtOf(DB shard) {
+		return shard.hashMap(FETCHED_AT, Serializer.STRING, Serializer.LONG).createOrOpen();
+	}
+
+	private final CacheConfig config;
+	private final Cache<String, CachedResponse> heap;
+	private final List<Shard> shards;
+	private final Set<String> refreshing;
+	private final Scheduler scheduler;
+
+	private final AtomicLong loads;
+	private final AtomicLong staleHits;
+	private final AtomicLong refreshes;
+
+	TieredResponseCache(CacheConfig config, List<DB> shards, Scheduler scheduler) {
+		this.config = config;
+		this.heap = CacheBuilder.newBuilder()
+				.maximumSize(config.getHeapEntries())
+				.concurrencyLevel(Runtime.getRuntime().availableProcessors())
+				.recordStats()
+				.build();
+		this.shards = shards.stream()
+				.map(Shard::new)
+				.collect(Collectors.toList());
+		this.refreshing = ConcurrentHashMap.newKeySet();
+		this.scheduler = scheduler;
+		this.loads = new AtomicLong();
+		this.staleHits = new AtomicLong();
+		this.refreshes = new AtomicLong();
+	}
+
+	private Shard shardOf(String key) {
+		return shards.size() == 1 ? shards.get(0) : shards.get(CrawlerCache.shardOf(key, shards.size()));
+	}
+
+	@Override
+	public <T> T get(String key, Endpoint endpoint, Loader<T> loader, Loader<T> refresher) throws IOException {
+		final T cached = getIfPresent(key, endpoint, () -> revalidate(key, refresher));
+		if(cached != null) {
+			return cached;
+		}
+		final T response = loader.load();
+		if(response != null) {
+			put(key, response);
+		}
+		return response;
+	}
+
+	@SuppressWarnings("unchecked")
+	@Override
+	public <T> T getIfPresent(String key, Endpoint endpoint, Runnable refresh) {
+		final CachedResponse cached = heap.getIfPresent(key);
+		if(cached != null) {
+			if(isStale(cached.getFetchedAt(), endpoint)) {
+				staleHits.incrementAndGet();
+				refresh.run();
+			}
+			return (T) cached.getValue();
+		}
+		loads.incrementAndGet();
+		final Shard shard = shardOf(key);
+		final T stored = (T) shard.read(key);
+		if(stored != null) {
+			// a response stored without its age is treated as stale, never as fresh
+			final long fetched = shard.fetchedAt.getOrDefault(key, 0L);
+			heap.put(key, new CachedResponse(stored, fetched));
+			if(isStale(fetched, endpoint)) {
+				staleHits.incrementAndGet();
+				refresh.run();
+			}
+		}
+		return stored;
+	}
+
+	@Override
+	public void put(String key, Object response) {
+		final long now = System.currentTimeMillis();
+		shardOf(key).write(key, response, now);
+		heap.put(key, new CachedResponse(response, now));
+	}
+
+	private boolean isStale(long fetched, Endpoint endpoint) {
+		return System.currentTimeMillis() - fetched > endpoint.getTtl(config);
+	}
+
+	private <T> void revalidate(String key, Loader<T> refresher) {
+		if(refresher != null && refreshing.add(key)) {
+			scheduler.scheduleDirect(() -> refresh(key, refresher));
+		}
+	}
+
+	private <T> void refresh(String key, Loader<T> refresher) {
+		try {
+			final T response = refresher.load();
+			if(response != null) {
+				put(key, response);
+				refreshes.incrementAndGet();
+			}
+		} catch (IOException | RuntimeException e) {
+			LOGGER.log(Level.WARNING, "Cannot refresh stale response: " + key, e);
+		} finally {
+			refreshing.remove(key);
+		}
+	}
+
+	@Override
+	public void invalidate(String key) {
+		heap.invalidate(key);
+		shardOf(key).remove(key);
+	}
+
+	@Override
+	public void invalidateAll() {
+		heap.invalidateAll();
+		shards.forEach(Shard::clear);
+	}
+
+	@Override
+	public CacheStats getHeapStats() {
+		return heap.stats();
+	}
+
+	@Override
+	public long getHeapSize() {
+		return heap.size();
+	}
+
+	@Override
+	public long getLoads() {
+		return loads.get();
+	}
+
+	@Override
+	public long getStaleHits() {
+		return staleHits.get();
+	}
+
+	@Override
+	public long getRefreshes() {
+		return refreshes.get();
+	}
+
+	private static class Shard {
+
+		private final Map<String, Object> responses;
+		// when each stored response was fetched from the network
+		private final Map<String, Long> fetchedAt;
+
+		private Shard(DB db) {
+			this.responses = responsesOf(db);
+			this.fetchedAt = fetchedAtOf(db);
+		}
+
+		private Object read(String key) {
+			try {
+				return responses.get(key);
+			} catch (RuntimeException e) {
+				// the response is fetched again instead
+				LOGGER.log(Level.WARNING, "Cannot read stored response: " + key, e);
+				remove(key);
+				return null;
+			}
+		}
+
+		private void write(String key, Object response, long fetched) {
+			try {
+				responses.put(key, response);
+				// stamped last, so that a response is never stored as fresher than it is
+				fetchedAt.put(key, fetched);
+			} catch (RuntimeException e) {
+				remove(key);
+				LOGGER.log(Level.WARNING, "Cannot store " + response.getClass().getName() + " response: " + key, e);
+			}
+		}
+
+		private void remove(String key) {
+			responses.remove(key);
+			fetchedAt.remove(key);
+		}
+
+		private void clear() {
+			responses.clear();
+			fetchedAt.clear();
+		}
+
+	}
+
+	private static class CachedResponse {
+
+		private final Object value;
+		private final long fetchedAt;
+
+		private CachedResponse(Object value, long fetchedAt) {
+			this.value = value;
+			this.fetchedAt = fetchedAt;
+		}
+
+		private Object getValue() {
+			return value;
+		}
+
+		private long getFetchedAt() {
+			return fetchedAt;
+		}
+
+	}
+
+}
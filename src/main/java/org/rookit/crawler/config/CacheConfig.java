@@ -0,0 +1,167 @@
+package org.rookit.crawler.config;
+
+import static org.rookit.utils.config.ConfigUtils.*;
+
+import java.nio.file.Paths;
+import java.util.concurrent.TimeUnit;
+
+@SuppressWarnings("javadoc")
+public class CacheConfig {
+	
+	private static final long DAY = TimeUnit.DAYS.toMillis(1);
+	private static final long DEFAULT_MAX_SIZE = 2*1024*1024*1024L;
+	private static final String DEFAULT_MISS_CACHE_PATH = Paths.get("crawler").resolve("misses").toString();
+	
+	private int heapEntries;
+	private long searchTtl;
+	private long discographyTtl;
+	private long playlistsTtl;
+	private long relatedArtistsTtl;
+	private long metadataTtl;
+	private long audioFeaturesTtl;
+	private String missCachePath;
+	private long missTtl;
+	private long maxSize;
+	private long maintenanceInterval;
+	private double compactionThreshold;
+	private int shards;
+	
+	public int getHeapEntries() {
+		return getOrDefault(heapEntries, 20000);
+	}
+	
+	public void setHeapEntries(int heapEntries) {
+		this.heapEntries = heapEntries;
+	}
+
+	public long getSearchTtl() {
+		if(searchTtl > 0) {
+			return searchTtl;
+		}
+		return DAY;
+	}
+
+	public void setSearchTtl(long searchTtl) {
+		this.searchTtl = searchTtl;
+	}
+
+	public long getDiscographyTtl() {
+		if(discographyTtl > 0) {
+			return discographyTtl;
+		}
+		return 7*DAY;
+	}
+
+	public void setDiscographyTtl(long discographyTtl) {
+		this.discographyTtl = discographyTtl;
+	}
+
+	public long getPlaylistsTtl() {
+		if(playlistsTtl > 0) {
+			return playlistsTtl;
+		}
+		return DAY;
+	}
+
+	public void setPlaylistsTtl(long playlistsTtl) {
+		this.playlistsTtl = playlistsTtl;
+	}
+
+	public long getRelatedArtistsTtl() {
+		if(relatedArtistsTtl > 0) {
+			return relatedArtistsTtl;
+		}
+		return 7*DAY;
+	}
+
+	public void setRelatedArtistsTtl(long relatedArtistsTtl) {
+		this.relatedArtistsTtl = relatedArtistsTtl;
+	}
+
+	public long getMetadataTtl() {
+		if(metadataTtl > 0) {
+			return metadataTtl;
+		}
+		return 30*DAY;
+	}
+
+	public void setMetadataTtl(long metadataTtl) {
+		this.metadataTtl = metadataTtl;
+	}
+
+	public long getAudioFeaturesTtl() {
+		if(audioFeaturesTtl > 0) {
+			return audioFeaturesTtl;
+		}
+		return Long.MAX_VALUE;
+	}
+
+	public void setAudioFeaturesTtl(long audioFeaturesTtl) {
+		this.audioFeaturesTtl = audioFeaturesTtl;
+	}
+
+	public String getMissCachePath() {
+		return getOrDefault(missCachePath, DEFAULT_MISS_CACHE_PATH);
+	}
+
+	public void setMissCachePath(String missCachePath) {
+		this.missCachePath = missCachePath;
+	}
+
+	public long getMissTtl() {
+		if(missTtl > 0) {
+			return missTtl;
+		}
+		return 30*DAY;
+	}
+
+	public void setMissTtl(long missTtl) {
+		this.missTtl = missTtl;
+	}
+
+	public long getMaxSize() {
+		if(maxSize > 0) {
+			return maxSize;
+		}
+		return DEFAULT_MAX_SIZE;
+	}
+
+	public void setMaxSize(long maxSize) {
+		this.maxSize = maxSize;
+	}
+
+	public long getMaintenanceInterval() {
+		if(maintenanceInterval > 0) {
+			return maintenanceInterval;
+		}
+		return TimeUnit.MINUTES.toMillis(10);
+	}
+
+	public void setMaintenanceInterval(long maintenanceInterval) {
+		this.maintenanceInterval = maintenanceInterval;
+	}
+
+	/**
+	 * @return share of free space above which a shard is compacted. Requests to a shard wait while
+	 * it is being compacted.
+	 */
+	public double getCompactionThreshold() {
+		if(compactionThreshold > 0 && compactionThreshold < 1) {
+			return compactionThreshold;
+		}
+		return 0.3;
+	}
+
+	public void setCompactionThreshold(double compactionThreshold) {
+		this.compactionThreshold = compactionThreshold;
+	}
+
+	public int getShards() {
+		return getOrDefault(shards, 1);
+	}
+
+	public void setShards(int shards) {
+		this.shards = shards;
+	}
+
+}
@@ -0,0 +1,79 @@
+package org.rookit.crawler.config;
+
+import static org.rookit.utils.config.ConfigUtils.*;
+
+import java.nio.file.Paths;
+
+@SuppressWarnings("javadoc")
+public class GraphConfig {
+	
+	private static final String DEFAULT_STATE_PATH = Paths.get("crawler").resolve("graph").toString();
+	
+	private String statePath;
+	private int maxDepth;
+	private int fanOut;
+	private int concurrency;
+	private int checkpointInterval;
+	private boolean skipDiscography;
+	private int maxAttempts;
+	
+	public String getStatePath() {
+		return getOrDefault(statePath, DEFAULT_STATE_PATH);
+	}
+	
+	public void setStatePath(String statePath) {
+		this.statePath = statePath;
+	}
+	
+	public int getMaxDepth() {
+		return getOrDefault(maxDepth, 3);
+	}
+	
+	public void setMaxDepth(int maxDepth) {
+		this.maxDepth = maxDepth;
+	}
+	
+	public int getFanOut() {
+		return getOrDefault(fanOut, 20);
+	}
+	
+	public void setFanOut(int fanOut) {
+		this.fanOut = fanOut;
+	}
+	
+	public int getConcurrency() {
+		return getOrDefault(concurrency, 4);
+	}
+	
+	public void setConcurrency(int concurrency) {
+		this.concurrency = concurrency;
+	}
+	
+	public int getCheckpointInterval() {
+		return getOrDefault(checkpointInterval, 100);
+	}
+	
+	public void setCheckpointInterval(int checkpointInterval) {
+		this.checkpointInterval = checkpointInterval;
+	}
+	
+	public boolean isSkipDiscography() {
+		return skipDiscography;
+	}
+	
+	public void setSkipDiscography(boolean skipDiscography) {
+		this.skipDiscography = skipDiscography;
+	}
+
+	/**
+	 * @return number of times an artist is visited before giving up on it, if every visit fails.
+	 */
+	public int getMaxAttempts() {
+		return getOrDefault(maxAttempts, 3);
+	}
+
+	public void setMaxAttempts(int maxAttempts) {
+		this.maxAttempts = maxAttempts;
+	}
+
+}
@@ -0,0 +1,111 @@
+package org.rookit.crawler.config;
+
+import static org.rookit.utils.config.ConfigUtils.*;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+@SuppressWarnings("javadoc")
+public class ImageConfig {
+	
+	private static final Path DEFAULT_CACHE_PATH = Paths.get("crawler").resolve("images");
+	private static final long DEFAULT_CACHE_SIZE = 512*1024*1024L;
+	
+	private String cachePath;
+	private long cacheSize;
+	private int concurrency;
+	private int connectTimeout;
+	private int readTimeout;
+	private int maxImageSize;
+	private boolean lazy;
+	private int maxDimension;
+	private float quality;
+	private boolean deduplicate;
+	
+	public int getConcurrency() {
+		return getOrDefault(concurrency, 4);
+	}
+	
+	public void setConcurrency(int concurrency) {
+		this.concurrency = concurrency;
+	}
+	
+	public int getConnectTimeout() {
+		return getOrDefault(connectTimeout, 5000);
+	}
+	
+	public void setConnectTimeout(int connectTimeout) {
+		this.connectTimeout = connectTimeout;
+	}
+	
+	public int getReadTimeout() {
+		return getOrDefault(readTimeout, 10000);
+	}
+	
+	public void setReadTimeout(int readTimeout) {
+		this.readTimeout = readTimeout;
+	}
+	
+	public int getMaxImageSize() {
+		return getOrDefault(maxImageSize, 8*1024*1024);
+	}
+	
+	public void setMaxImageSize(int maxImageSize) {
+		this.maxImageSize = maxImageSize;
+	}
+	
+	public String getCachePath() {
+		return getOrDefault(cachePath, DEFAULT_CACHE_PATH.toString());
+	}
+	
+	public void setCachePath(String cachePath) {
+		this.cachePath = cachePath;
+	}
+	
+	public long getCacheSize() {
+		if(cacheSize > 0) {
+			return cacheSize;
+		}
+		return DEFAULT_CACHE_SIZE;
+	}
+	
+	public void setCacheSize(long cacheSize) {
+		this.cacheSize = cacheSize;
+	}
+	
+	public boolean isLazy() {
+		return getOrDefault(lazy, false);
+	}
+	
+	public void setLazy(boolean lazy) {
+		this.lazy = lazy;
+	}
+	
+	public int getMaxDimension() {
+		return maxDimension;
+	}
+	
+	public void setMaxDimension(int maxDimension) {
+		this.maxDimension = maxDimension;
+	}
+	
+	public float getQuality() {
+		if(quality > 0 && quality <= 1) {
+			return quality;
+		}
+		return 0.85f;
+	}
+	
+	public void setQuality(float quality) {
+		this.quality = quality;
+	}
+	
+	public boolean isDeduplicate() {
+		return getOrDefault(deduplicate, false);
+	}
+	
+	public void setDeduplicate(boolean deduplicate) {
+		this.deduplicate = deduplicate;
+	}
+
+}
@@ -14,8 +14,15 @@ public class MusicServiceConfig {
 	
 	private String formatsPath;
 	private String cachePath;
+	private int maxTracksInFlight;
+	private int maxServicesPerTrack;
+	private int titleCacheSize;
 	private LastFMConfig lastfm;
 	private SpotifyConfig spotify;
+	private ImageConfig images;
+	private CacheConfig cache;
+	private GraphConfig graph;
+	private PriorityConfig priority;
 
 	public LastFMConfig getLastfm() {
 		return getOrDefault(lastfm, new LastFMConfig());
@@ -41,6 +48,46 @@ public class MusicServiceConfig {
 		this.spotify = spotify;
 	}
 
+	public int getTitleCacheSize() {
+		return getOrDefault(titleCacheSize, 50000);
+	}
+
+	public void setTitleCacheSize(int titleCacheSize) {
+		this.titleCacheSize = titleCacheSize;
+	}
+
+	public ImageConfig getImages() {
+		return getOrDefault(images, new ImageConfig());
+	}
+
+	public void setImages(ImageConfig images) {
+		this.images = images;
+	}
+
+	public CacheConfig getCache() {
+		return getOrDefault(cache, new CacheConfig());
+	}
+
+	public void setCache(CacheConfig cache) {
+		this.cache = cache;
+	}
+
+	public GraphConfig getGraph() {
+		return getOrDefault(graph, new GraphConfig());
+	}
+
+	public void setGraph(GraphConfig graph) {
+		this.graph = graph;
+	}
+
+	public PriorityConfig getPriority() {
+		return getOrDefault(priority, new PriorityConfig());
+	}
+
+	public void setPriority(PriorityConfig priority) {
+		this.priority = priority;
+	}
+
 	public String getFormatsPath() {
 		return getOrDefault(formatsPath, DEFAULT_FORMAT_PATH.toString());
 	}
@@ -48,5 +95,25 @@ public class MusicServiceConfig {
 	public void setFormatsPath(String formatsPath) {
 		this.formatsPath = formatsPath;
 	}
+
+	public int getMaxTracksInFlight() {
+		return getOrDefault(maxTracksInFlight, 32);
+	}
+
+	public void setMaxTracksInFlight(int maxTracksInFlight) {
+		this.maxTracksInFlight = maxTracksInFlight;
+	}
+
+	/**
+	 * @return number of services a single track is searched on at the same time. Requests sent to
+	 * each service are bounded by its own request scheduler instead.
+	 */
+	public int getMaxServicesPerTrack() {
+		return getOrDefault(maxServicesPerTrack, 4);
+	}
+
+	public void setMaxServicesPerTrack(int maxServicesPerTrack) {
+		this.maxServicesPerTrack = maxServicesPerTrack;
+	}
 	
 }
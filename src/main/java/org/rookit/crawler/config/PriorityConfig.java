@@ -0,0 +1,98 @@
+package org.rookit.crawler.config;
+
+import static org.rookit.utils.config.ConfigUtils.*;
+
+import java.util.concurrent.TimeUnit;
+
+@SuppressWarnings("javadoc")
+public class PriorityConfig {
+	
+	private int workers;
+	private double popularityWeight;
+	private double followersWeight;
+	private double stalenessWeight;
+	private long staleAfter;
+	private double agingRate;
+	private double maxAging;
+	
+	public int getWorkers() {
+		return getOrDefault(workers, 4);
+	}
+	
+	public void setWorkers(int workers) {
+		this.workers = workers;
+	}
+	
+	public double getPopularityWeight() {
+		if(popularityWeight > 0) {
+			return popularityWeight;
+		}
+		return 1;
+	}
+	
+	public void setPopularityWeight(double popularityWeight) {
+		this.popularityWeight = popularityWeight;
+	}
+	
+	public double getFollowersWeight() {
+		if(followersWeight > 0) {
+			return followersWeight;
+		}
+		return 1;
+	}
+	
+	public void setFollowersWeight(double followersWeight) {
+		this.followersWeight = followersWeight;
+	}
+	
+	public double getStalenessWeight() {
+		if(stalenessWeight > 0) {
+			return stalenessWeight;
+		}
+		return 1;
+	}
+	
+	public void setStalenessWeight(double stalenessWeight) {
+		this.stalenessWeight = stalenessWeight;
+	}
+	
+	public long getStaleAfter() {
+		if(staleAfter > 0) {
+			return staleAfter;
+		}
+		return TimeUnit.DAYS.toMillis(30);
+	}
+	
+	public void setStaleAfter(long staleAfter) {
+		this.staleAfter = staleAfter;
+	}
+	
+	/**
+	 * @return priority gained by a task for each minute it waits in the queue.
+	 */
+	public double getAgingRate() {
+		if(agingRate > 0) {
+			return agingRate;
+		}
+		return 0.001;
+	}
+	
+	public void setAgingRate(double agingRate) {
+		this.agingRate = agingRate;
+	}
+	
+	/**
+	 * @return share of the whole priority range a task can gain by waiting.
+	 */
+	public double getMaxAging() {
+		if(maxAging > 0 && maxAging < 1) {
+			return maxAging;
+		}
+		return 0.25;
+	}
+	
+	public void setMaxAging(double maxAging) {
+		this.maxAging = maxAging;
+	}
+
+}
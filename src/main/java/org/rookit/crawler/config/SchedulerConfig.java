@@ -0,0 +1,68 @@
+package org.rookit.crawler.config;
+
+import static org.rookit.utils.config.ConfigUtils.*;
+
+import java.util.concurrent.TimeUnit;
+
+@SuppressWarnings("javadoc")
+public class SchedulerConfig {
+
+	/**
+	 * What a caller submitting work to a saturated scheduler does.
+	 */
+	public enum Saturation {
+		/** runs the task itself, which slows down the producer */
+		CALLER_RUNS,
+		/**
+		 * waits until a thread or a queue slot is free. Tasks of the scheduler submitting more work
+		 * run it themselves instead, as they would otherwise wait for threads they are holding.
+		 */
+		BLOCK;
+	}
+
+	private int threads;
+	private int queueSize;
+	private long keepAlive;
+	private Saturation saturation;
+
+	public int getThreads() {
+		return getOrDefault(threads, 64);
+	}
+
+	public void setThreads(int threads) {
+		this.threads = threads;
+	}
+
+	/**
+	 * @return number of tasks waiting for a thread. Zero (the default) hands each task directly to
+	 * a thread. Tasks must never block on work scheduled on the same scheduler, as it could be
+	 * queued behind the threads waiting for it: page drains run off the scheduler for this reason.
+	 */
+	public int getQueueSize() {
+		return queueSize;
+	}
+
+	public void setQueueSize(int queueSize) {
+		this.queueSize = queueSize;
+	}
+
+	public long getKeepAlive() {
+		if(keepAlive > 0) {
+			return keepAlive;
+		}
+		return TimeUnit.MINUTES.toMillis(1);
+	}
+
+	public void setKeepAlive(long keepAlive) {
+		this.keepAlive = keepAlive;
+	}
+
+	public Saturation getSaturation() {
+		return getOrDefault(saturation, Saturation.CALLER_RUNS);
+	}
+
+	public void setSaturation(Saturation saturation) {
+		this.saturation = saturation;
+	}
+
+}
@@ -1,11 +1,26 @@
 package org.rookit.crawler.config;
 
+import static org.rookit.utils.config.ConfigUtils.*;
+
 @SuppressWarnings("javadoc")
 public class SpotifyConfig {
 
 	private String clientId;
 	private String clientSecret;
 	private int rateLimit;
+	private int maxRateLimit;
+	private int pagePrefetch;
+	private int pageConcurrency;
+	private boolean unorderedPages;
+	private int pageRetries;
+	private long retryBackoff;
+	private long maxRetryBackoff;
+	private int artistCacheSize;
+	private int artistIndexDistance;
+	private long batchWindow;
+	private boolean virtualThreads;
+	private int maxConcurrentRequests;
+	private SchedulerConfig scheduler;
 	
 	public String getClientId() {
 		return clientId;
@@ -33,6 +48,149 @@ public class SpotifyConfig {
 	public void setRateLimit(int rateLimit) {
 		this.rateLimit = rateLimit;
 	}
+
+	public int getMaxRateLimit() {
+		if(maxRateLimit > 0) {
+			return maxRateLimit;
+		}
+		return 2*getRateLimit();
+	}
+
+	public void setMaxRateLimit(int maxRateLimit) {
+		this.maxRateLimit = maxRateLimit;
+	}
+
+	public int getPagePrefetch() {
+		if(pagePrefetch > 0) {
+			return pagePrefetch;
+		}
+		return 1;
+	}
+
+	public void setPagePrefetch(int pagePrefetch) {
+		this.pagePrefetch = pagePrefetch;
+	}
+
+	/**
+	 * @return number of pages fetched concurrently by offset. Above one, the fan-out takes over
+	 * from {@link #getPagePrefetch()} for the requests that can be addressed by offset.
+	 */
+	public int getPageConcurrency() {
+		if(pageConcurrency > 0) {
+			return pageConcurrency;
+		}
+		return 1;
+	}
+
+	public void setPageConcurrency(int pageConcurrency) {
+		this.pageConcurrency = pageConcurrency;
+	}
+
+	public boolean isUnorderedPages() {
+		return unorderedPages;
+	}
+
+	public void setUnorderedPages(boolean unorderedPages) {
+		this.unorderedPages = unorderedPages;
+	}
+
+	public int getPageRetries() {
+		if(pageRetries > 0) {
+			return pageRetries;
+		}
+		return 3;
+	}
+
+	public void setPageRetries(int pageRetries) {
+		this.pageRetries = pageRetries;
+	}
+
+	public long getRetryBackoff() {
+		if(retryBackoff > 0) {
+			return retryBackoff;
+		}
+		return 500;
+	}
+
+	public void setRetryBackoff(long retryBackoff) {
+		this.retryBackoff = retryBackoff;
+	}
+
+	public long getMaxRetryBackoff() {
+		if(maxRetryBackoff > 0) {
+			return maxRetryBackoff;
+		}
+		return 30000;
+	}
+
+	public void setMaxRetryBackoff(long maxRetryBackoff) {
+		this.maxRetryBackoff = maxRetryBackoff;
+	}
+
+	public int getArtistCacheSize() {
+		if(artistCacheSize > 0) {
+			return artistCacheSize;
+		}
+		return 100000;
+	}
+
+	public void setArtistCacheSize(int artistCacheSize) {
+		this.artistCacheSize = artistCacheSize;
+	}
+
+	public int getArtistIndexDistance() {
+		return artistIndexDistance;
+	}
+
+	public void setArtistIndexDistance(int artistIndexDistance) {
+		this.artistIndexDistance = artistIndexDistance;
+	}
 	
 	
+	public long getBatchWindow() {
+		if(batchWindow > 0) {
+			return batchWindow;
+		}
+		return 20;
+	}
+
+	public void setBatchWindow(long batchWindow) {
+		this.batchWindow = batchWindow;
+	}
+
+	/**
+	 * @return whether blocking requests run on virtual threads, when the runtime supports them,
+	 * instead of the pool described by {@link #getScheduler()}.
+	 */
+	public boolean isVirtualThreads() {
+		return virtualThreads;
+	}
+
+	public void setVirtualThreads(boolean virtualThreads) {
+		this.virtualThreads = virtualThreads;
+	}
+
+	/**
+	 * @return maximum requests in flight when they run on virtual threads. Ignored otherwise, as the
+	 * scheduler's threads already bound them.
+	 */
+	public int getMaxConcurrentRequests() {
+		if(maxConcurrentRequests > 0) {
+			return maxConcurrentRequests;
+		}
+		return 64;
+	}
+
+	public void setMaxConcurrentRequests(int maxConcurrentRequests) {
+		this.maxConcurrentRequests = maxConcurrentRequests;
+	}
+
+	public SchedulerConfig getScheduler() {
+		return getOrDefault(scheduler, new SchedulerConfig());
+	}
+
+	public void setScheduler(SchedulerConfig scheduler) {
+		this.scheduler = scheduler;
+	}
+
 }
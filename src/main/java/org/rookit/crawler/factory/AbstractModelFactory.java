@@ -5,18 +5,20 @@ import static org.rookit.crawler.MusicService.*;
 
 import java.io.IOException;
 import java.nio.file.Paths;
-import java.util.Arrays;
 import java.util.Collection;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
 import java.util.logging.Logger;
 import java.util.stream.Collectors;
 
-import org.apache.commons.lang3.tuple.Pair;
-import org.apache.commons.text.similarity.LevenshteinDistance;
 import org.bson.Document;
 import org.rookit.crawler.config.MusicServiceConfig;
+import org.rookit.crawler.image.ImageFetcher;
+import org.rookit.dm.MetadataHolder;
+import org.rookit.dm.album.Album;
 import org.rookit.dm.album.AlbumFactory;
 import org.rookit.dm.artist.Artist;
 import org.rookit.dm.artist.ArtistFactory;
@@ -29,6 +31,7 @@ import org.rookit.parser.parser.Parser;
 import org.rookit.parser.parser.ParserFactory;
 import org.rookit.parser.result.SingleTrackAlbumBuilder;
 
+import com.google.common.cache.CacheStats;
 import com.google.common.collect.Maps;
 
 abstract class AbstractModelFactory<Ar, Al, Tr> implements ModelFactory<Ar, Al, Tr> {
@@ -36,23 +39,31 @@ abstract class AbstractModelFactory<Ar, Al, Tr> implements ModelFactory<Ar, Al,
 	protected static final Logger LOGGER = Logger.getLogger(ModelFactory.class.getName());
 	
 	protected final Parser<String, SingleTrackAlbumBuilder> parser;
-	protected final LevenshteinDistance distance;
+	private final TitleCache titles;
+	protected final NameMatcher matcher;
 	protected final int levenshteinThreshold;
 	
 	protected final ArtistFactory artistFactory;
 	protected final AlbumFactory albumFactory;
 	protected final GenreFactory genreFactory;
 	
-	protected AbstractModelFactory(MusicServiceConfig config) {
-		this(config, 10);
+	protected final ImageFetcher images;
+	// fetchers created by the factory itself are closed with it
+	private final boolean ownsImages;
+	
+	protected AbstractModelFactory(MusicServiceConfig config, ImageFetcher images, boolean ownsImages) {
+		this(config, 10, images, ownsImages);
 	}
 	
-	protected AbstractModelFactory(MusicServiceConfig config, int levenshteinThreshold) {
+	protected AbstractModelFactory(MusicServiceConfig config, int levenshteinThreshold, ImageFetcher images, boolean ownsImages) {
 		parser = createParser(config.getFormatsPath()); 
 		this.artistFactory = ArtistFactory.getDefault();
+		this.titles = new TitleCache(parser, artistFactory, config.getTitleCacheSize());
+		this.images = images;
+		this.ownsImages = ownsImages;
 		this.albumFactory = AlbumFactory.getDefault();
 		this.genreFactory = GenreFactory.getDefault();
-		this.distance = LevenshteinDistance.getDefaultInstance();
+		this.matcher = new NameMatcher(levenshteinThreshold);
 		this.levenshteinThreshold = levenshteinThreshold;
 	}
 	
@@ -81,13 +92,78 @@ abstract class AbstractModelFactory<Ar, Al, Tr> implements ModelFactory<Ar, Al,
 		}
 	}
 	
+	protected abstract String getServiceName();
+	
+	protected Map<String, Object> serviceMetadata(MetadataHolder holder) {
+		Map<String, Object> metadata = holder.getExternalMetadata(getServiceName());
+		if(metadata == null) {
+			metadata = new Document();
+			holder.putExternalMetadata(getServiceName(), metadata);
+		}
+		return metadata;
+	}
+	
+	protected void recordImage(MetadataHolder holder, String url, int width, int height) {
+		final Document image = new Document(URL, url);
+		if(width > 0 && height > 0) {
+			image.append(WIDTH, width).append(HEIGHT, height);
+		}
+		serviceMetadata(holder).put(IMAGE, image);
+	}
+	
+	@Override
+	public CompletableFuture<byte[]> loadCover(Album album) {
+		if(album.getCover() != null) {
+			return CompletableFuture.completedFuture(album.getCover());
+		}
+		return loadImage(album, album::setCover);
+	}
+	
+	@Override
+	public CompletableFuture<byte[]> loadPicture(Artist artist) {
+		if(artist.getPicture() != null) {
+			return CompletableFuture.completedFuture(artist.getPicture());
+		}
+		return loadImage(artist, artist::setPicture);
+	}
+	
+	private CompletableFuture<byte[]> loadImage(MetadataHolder holder, Consumer<byte[]> setter) {
+		final Map<String, Object> metadata = holder.getExternalMetadata(getServiceName());
+		final Object image = metadata != null ? metadata.get(IMAGE) : null;
+		if(image instanceof Map) {
+			final Object url = ((Map<?, ?>) image).get(URL);
+			if(url != null) {
+				return fetchImage(url.toString(), setter);
+			}
+		}
+		return CompletableFuture.completedFuture(null);
+	}
+	
+	private CompletableFuture<byte[]> fetchImage(String url, Consumer<byte[]> setter) {
+		return images.fetch(url)
+				.thenApply(image -> {
+					if(image != null) {
+						setter.accept(image);
+					}
+					return image;
+				});
+	}
+	
 	protected SingleTrackAlbumBuilder parseTrackTitle(String title) {
-		return parser.parse(title)
-				.filter(result -> result.getScore() > 0)
+		return titles.parse(title, 0)
 				.orElseThrow(() -> new RuntimeException("Cannot parse " + title));
 		// TODO set score in else clause
 	}
 	
+	protected SingleTrackAlbumBuilder parseAnyTrackTitle(String title) {
+		return titles.parse(title, Integer.MIN_VALUE)
+				.orElseThrow(() -> new RuntimeException("Cannot parse: " + title));
+	}
+	
+	public CacheStats getTitleCacheStats() {
+		return titles.getStats();
+	}
+	
 	protected Set<Artist> toArtists(String name, String mbId) {
 		final Set<Artist> artists = artistFactory.getArtistsFromFormat(name);
 		setMBid(mbId, artists);
@@ -111,29 +187,14 @@ abstract class AbstractModelFactory<Ar, Al, Tr> implements ModelFactory<Ar, Al,
 	}
 	
 	protected String bestMatch(Collection<String> search, String str) {
-		if(search.isEmpty()) {
-			throw new RuntimeException("Cannot find the best match in an empty collection");
-		}
-		final String lowerString = str.toLowerCase();
-		return search.parallelStream()
-				.map(String::toLowerCase)
-				.filter(searchStr -> !containsAny(searchStr, Parser.SUSPICIOUS_NAME_CHARSEQS))
-				.map(searchStr -> Pair.of(searchStr, distance.apply(searchStr, lowerString)))
-				.filter(pair -> pair.getRight() >= 0)
-				.filter(pair -> pair.getRight() < levenshteinThreshold)
-				.reduce(this::compare)
-				.map(Pair::getLeft)
-				.orElseThrow(() -> new RuntimeException("No artist name left"));
+		return matcher.bestMatch(search, str);
 	}
 	
-	private boolean containsAny(String searchStr, String[] strs) {
-		return Arrays.stream(strs).anyMatch(str -> searchStr.contains(str));
-	}
-
-	private Pair<String, Integer> compare(Pair<String, Integer> left, Pair<String, Integer> right) {
-		final int leftScore = left.getRight();
-		final int rigthScore = right.getRight();
-		return leftScore < rigthScore ? left : right;
+	@Override
+	public void close() throws IOException {
+		if(ownsImages) {
+			images.close();
+		}
 	}
 
 }
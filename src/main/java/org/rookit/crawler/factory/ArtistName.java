@@ -0,0 +1,25 @@
+package org.rookit.crawler.factory;
+
+import org.rookit.dm.artist.Artist;
+import org.rookit.dm.artist.ArtistFactory;
+import org.rookit.dm.artist.TypeArtist;
+
+final class ArtistName {
+
+	static ArtistName of(Artist artist) {
+		return new ArtistName(artist.getArtistType(), artist.getName());
+	}
+
+	private final TypeArtist type;
+	private final String name;
+
+	private ArtistName(TypeArtist type, String name) {
+		this.type = type;
+		this.name = name;
+	}
+
+	Artist create(ArtistFactory artistFactory) {
+		return artistFactory.createArtist(type, name);
+	}
+
+}
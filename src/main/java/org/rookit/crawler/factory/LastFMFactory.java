@@ -12,7 +12,9 @@ import java.util.Set;
 
 import org.bson.Document;
 import org.rookit.crawler.config.MusicServiceConfig;
-import org.rookit.crawler.utils.CrawlerIOUtils;
+import org.rookit.crawler.image.ImageCache;
+import org.rookit.crawler.image.ImageFetcher;
+import org.rookit.dm.MetadataHolder;
 import org.rookit.dm.album.Album;
 import org.rookit.dm.artist.Artist;
 import org.rookit.dm.track.Track;
@@ -25,7 +27,15 @@ import de.umass.lastfm.MusicEntry;
 public class LastFMFactory extends AbstractModelFactory<de.umass.lastfm.Artist, de.umass.lastfm.Album, de.umass.lastfm.Track> {
 
 	public LastFMFactory(MusicServiceConfig config, int levenshteinThreshold) {
-		super(config, levenshteinThreshold);
+		this(config, levenshteinThreshold, ImageFetcher.create(config.getImages(), ImageCache.inMemory(config.getImages())), true);
+	}
+	
+	public LastFMFactory(MusicServiceConfig config, int levenshteinThreshold, ImageFetcher images) {
+		this(config, levenshteinThreshold, images, false);
+	}
+	
+	private LastFMFactory(MusicServiceConfig config, int levenshteinThreshold, ImageFetcher images, boolean ownsImages) {
+		super(config, levenshteinThreshold, images, ownsImages);
 	}
 
 	@Override
@@ -66,10 +76,7 @@ public class LastFMFactory extends AbstractModelFactory<de.umass.lastfm.Artist,
 				.append(WIKI, source.getWikiSummary());
 		album.putExternalMetadata(MBRAINZ.name(), mBrainz);
 		album.putExternalMetadata(LASTFM.name(), lastFM);
-		final byte[] cover = getBiggest(source);
-		if(cover != null) {
-			album.setCover(cover);
-		}
+		recordBiggest(source, album);
 		final LocalDate releaseDate = getReleaseDate(source);
 		if(releaseDate != null) {
 			album.setReleaseDate(releaseDate);
@@ -81,14 +88,18 @@ public class LastFMFactory extends AbstractModelFactory<de.umass.lastfm.Artist,
 		return album;
 	}
 	
-	private byte[] getBiggest(MusicEntry source) {
+	private void recordBiggest(MusicEntry source, MetadataHolder holder) {
 		final ImageSize biggest = source.availableSizes().parallelStream()
 				.reduce((left, right) -> compare(left, right, source))
 				.get();
 		if(biggest != null && !source.getImageURL(biggest).isEmpty()) {
-			return CrawlerIOUtils.downloadImage(source.getImageURL(biggest));
+			recordImage(holder, source.getImageURL(biggest), 0, 0);
 		}
-		return null;
+	}
+	
+	@Override
+	protected String getServiceName() {
+		return LASTFM.name();
 	}
 	
 	private ImageSize compare(ImageSize left, ImageSize right, MusicEntry source) {
@@ -111,7 +122,7 @@ public class LastFMFactory extends AbstractModelFactory<de.umass.lastfm.Artist,
 	private Album toAlbum(de.umass.lastfm.Track track, Set<Artist> artists) {
 		final Album album = albumFactory.createSingleArtistAlbum(track.getAlbum(), artists);
 		final Document mBrainz = new Document(ID, track.getAlbumMbid());
-		album.setCover(getBiggest(track));
+		recordBiggest(track, album);
 		album.putExternalMetadata(MBRAINZ.name(), mBrainz);
 		
 		return album;
@@ -122,7 +133,6 @@ public class LastFMFactory extends AbstractModelFactory<de.umass.lastfm.Artist,
 		final Set<Artist> artists = artistFactory.getArtistsFromFormat(source.getName());
 		final Artist artist = bestMatchArtist(artists, originalName);
 		if(artist != null) {
-			final byte[] cover = getBiggest(source);
 			final Document lastFM = new Document(ID, source.getId())
 					.append(LISTENERS, source.getListeners())
 					.append(TAGS, source.getTags())
@@ -132,9 +142,7 @@ public class LastFMFactory extends AbstractModelFactory<de.umass.lastfm.Artist,
 			artist.putExternalMetadata(LASTFM.name(), lastFM);
 			// only sets the mbid if artists = artist
 			setMBid(source.getMbid(), artists);
-			if(cover != null) {
-				artist.setPicture(cover);
-			}
+			recordBiggest(source, artist);
 			return artist;
 		}
 		return null;
@@ -1,13 +1,15 @@
 package org.rookit.crawler.factory;
 
+import java.io.Closeable;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 
 import org.rookit.dm.album.Album;
 import org.rookit.dm.artist.Artist;
 import org.rookit.dm.track.Track;
 
 @SuppressWarnings("javadoc")
-public interface ModelFactory<Ar, Al, Tr> {
+public interface ModelFactory<Ar, Al, Tr> extends Closeable {
 	
 	Track toTrack(Tr source);
 	
@@ -17,4 +19,8 @@ public interface ModelFactory<Ar, Al, Tr> {
 	
 	Set<Artist> toArtist(Ar source);
 	
+	CompletableFuture<byte[]> loadCover(Album album);
+	
+	CompletableFuture<byte[]> loadPicture(Artist artist);
+	
 }
@@ -0,0 +1,100 @@
+package org.rookit.crawler.factory;
+
+import java.util.Collection;
+import java.util.Objects;
+
+import org.apache.commons.text.similarity.LevenshteinDistance;
+import org.rookit.parser.parser.Parser;
+
+class NameMatcher {
+	
+	private static final int PARALLEL_THRESHOLD = 512;
+	
+	private final int threshold;
+	private final LevenshteinDistance distance;
+	
+	/**
+	 * @param threshold candidates at this distance or further are never matched
+	 */
+	NameMatcher(int threshold) {
+		this.threshold = threshold;
+		// a limited distance gives up as soon as the threshold is exceeded, returning -1
+		this.distance = threshold > 0 ? new LevenshteinDistance(threshold - 1) : null;
+	}
+	
+	/**
+	 * Finds the candidate closest to {@code str}, ignoring case and suspicious names. Among
+	 * candidates at the same distance, the last one wins.
+	 * 
+	 * @param search candidate names
+	 * @param str name to match
+	 * @return the lower case form of the best candidate
+	 */
+	String bestMatch(Collection<String> search, String str) {
+		if(search.isEmpty()) {
+			throw new RuntimeException("Cannot find the best match in an empty collection");
+		}
+		final String target = str.toLowerCase();
+		final Match best = search.size() < PARALLEL_THRESHOLD
+				? bestMatchSequentially(search, target)
+				: search.parallelStream()
+				.map(candidate -> match(candidate, target))
+				.filter(Objects::nonNull)
+				.reduce(Match::closest)
+				.orElse(null);
+		if(best == null) {
+			throw new RuntimeException("No artist name left");
+		}
+		return best.name;
+	}
+	
+	private Match bestMatchSequentially(Collection<String> search, String target) {
+		Match best = null;
+		for(String candidate : search) {
+			final Match match = match(candidate, target);
+			if(match != null) {
+				best = best == null ? match : best.closest(match);
+			}
+		}
+		return best;
+	}
+	
+	private Match match(String candidate, String target) {
+		if(distance == null) {
+			return null;
+		}
+		final String name = candidate.toLowerCase();
+		// the distance is never smaller than the difference in length
+		if(Math.abs(name.length() - target.length()) >= threshold || isSuspicious(name)) {
+			return null;
+		}
+		final int score = distance.apply(name, target);
+		return score >= 0 ? new Match(name, score) : null;
+	}
+	
+	private boolean isSuspicious(String name) {
+		for(String charSeq : Parser.SUSPICIOUS_NAME_CHARSEQS) {
+			if(name.contains(charSeq)) {
+				return true;
+			}
+		}
+		return false;
+	}
+	
+	private static class Match {
+		
+		private final String name;
+		private final int distance;
+		
+		private Match(String name, int distance) {
+			super();
+			this.name = name;
+			this.distance = distance;
+		}
+		
+		private Match closest(Match other) {
+			return distance < other.distance ? this : other;
+		}
+	}
+
+}
@@ -0,0 +1,89 @@
+package org.rookit.crawler.factory;
+
+import java.util.Collection;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.rookit.dm.artist.Artist;
+import org.rookit.dm.artist.ArtistFactory;
+import org.rookit.dm.track.TypeVersion;
+import org.rookit.parser.result.SingleTrackAlbumBuilder;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Sets;
+
+final class ParsedTitle {
+
+	static ParsedTitle of(SingleTrackAlbumBuilder result) {
+		return new ParsedTitle(result);
+	}
+
+	private final String title;
+	private final int score;
+	private final ImmutableList<ArtistName> mainArtists;
+	private final ImmutableList<ArtistName> features;
+	private final ImmutableList<ArtistName> producers;
+	private final ImmutableList<ArtistName> versionArtists;
+	private final TypeVersion typeVersion;
+	private final String versionToken;
+	private final String hiddenTrack;
+	private final String disc;
+	private final Integer number;
+
+	private ParsedTitle(SingleTrackAlbumBuilder result) {
+		title = result.getTitle();
+		score = result.getScore();
+		mainArtists = namesOf(result.getMainArtists());
+		features = namesOf(result.getFeatures());
+		producers = namesOf(result.getProducers());
+		versionArtists = namesOf(result.getVersionArtists());
+		typeVersion = result.getTypeVersion();
+		versionToken = result.getVersionToken();
+		hiddenTrack = result.getHiddenTrack();
+		disc = result.getDisc();
+		number = result.getNumber();
+	}
+
+	private static ImmutableList<ArtistName> namesOf(Collection<Artist> artists) {
+		if(artists == null) {
+			return ImmutableList.of();
+		}
+		return artists.stream()
+				.map(ArtistName::of)
+				.collect(ImmutableList.toImmutableList());
+	}
+
+	int getScore() {
+		return score;
+	}
+
+	SingleTrackAlbumBuilder toBuilder(ArtistFactory artistFactory) {
+		final SingleTrackAlbumBuilder builder = SingleTrackAlbumBuilder.create()
+				.withTitle(title)
+				.withMainArtists(create(artistFactory, mainArtists))
+				.withFeatures(create(artistFactory, features))
+				.withProducers(create(artistFactory, producers));
+		if(typeVersion != null) {
+			builder.withTypeVersion(typeVersion)
+			.withVersionArtists(create(artistFactory, versionArtists))
+			.withVersionToken(versionToken);
+		}
+		if(hiddenTrack != null) {
+			builder.withHiddenTrack(hiddenTrack);
+		}
+		if(disc != null) {
+			builder.withDisc(disc);
+		}
+		if(number != null) {
+			builder.withNumber(number);
+		}
+		return builder;
+	}
+
+	private static Set<Artist> create(ArtistFactory artistFactory, Collection<ArtistName> names) {
+		return names.stream()
+				.map(name -> name.create(artistFactory))
+				.collect(Collectors.toCollection(Sets::newLinkedHashSet));
+	}
+
+}
@@ -4,6 +4,10 @@ import org.rookit.dm.track.Track;
 import org.rookit.dm.track.audio.TrackKey;
 import org.rookit.dm.track.audio.TrackMode;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.Sets;
 import com.wrapper.spotify.models.album.AlbumType;
 import com.wrapper.spotify.models.album.ReleaseDatePrecision;
@@ -18,10 +22,12 @@ import static org.rookit.crawler.AvailableServices.SPOTIFY;
 import java.time.Duration;
 import java.time.LocalDate;
 import java.util.Collection;
+import java.util.Date;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.StringTokenizer;
+import java.util.concurrent.ExecutionException;
 import java.util.stream.Collectors;
 
 import static org.rookit.crawler.MusicService.*;
@@ -29,7 +35,9 @@ import static org.rookit.crawler.MusicService.*;
 import org.apache.commons.lang3.tuple.Pair;
 import org.bson.Document;
 import org.rookit.crawler.config.MusicServiceConfig;
-import org.rookit.crawler.utils.CrawlerIOUtils;
+import org.rookit.crawler.image.ImageCache;
+import org.rookit.crawler.image.ImageFetcher;
+import org.rookit.dm.MetadataHolder;
 import org.rookit.dm.album.Album;
 import org.rookit.dm.album.TypeRelease;
 import org.rookit.dm.artist.Artist;
@@ -42,8 +50,24 @@ public class SpotifyFactory extends AbstractModelFactory<com.wrapper.spotify.mod
 	private static final float IS_INSTRUMENTAL_THRESHOLD = 0.6f;
 	private static final float IS_LIVE_THRESHOLD = 0.8f;
 	
+	private final Cache<String, ImmutableList<ArtistName>> artists;
+	
 	public SpotifyFactory(MusicServiceConfig config) {
-		super(config);
+		this(config, ImageFetcher.create(config.getImages(), ImageCache.inMemory(config.getImages())), true);
+	}
+	
+	public SpotifyFactory(MusicServiceConfig config, ImageFetcher images) {
+		this(config, images, false);
+	}
+	
+	private SpotifyFactory(MusicServiceConfig config, ImageFetcher images, boolean ownsImages) {
+		super(config, images, ownsImages);
+		// artists resolved from each spotify id's name. Only their names are kept, every track, album and
+		// search result gets its own entities, which callers are free to change
+		artists = CacheBuilder.newBuilder()
+				.maximumSize(config.getSpotify().getArtistCacheSize())
+				.recordStats()
+				.build();
 	}
 	
 	@Override
@@ -51,6 +75,7 @@ public class SpotifyFactory extends AbstractModelFactory<com.wrapper.spotify.mod
 		final Track track = toTrack((SimpleTrack) source);
 		final Map<String, Object> extMeta = track.getExternalMetadata(SPOTIFY.name());
 		extMeta.put(POPULARITY, source.getPopularity());
+		extMeta.put(REFRESHED, new Date());
 		// TODO add these fields
 		source.getExternalIds();
 		return track;
@@ -86,8 +111,7 @@ public class SpotifyFactory extends AbstractModelFactory<com.wrapper.spotify.mod
 				.append(URL, source.getHref())
 				.append(PREVIEW, source.getPreviewUrl())
 				.append(URI, source.getUri());
-		final Track track = parser.parse(source.getName())
-				.orElseThrow(() -> new RuntimeException("Cannot parse: " + source.getName()))
+		final Track track = parseAnyTrackTitle(source.getName())
 				.withDisc(source.getDiscNumber()+"")
 				.withNumber(source.getTrackNumber())
 				.withDuration(Duration.ofMillis(source.getDuration()))
@@ -95,9 +119,9 @@ public class SpotifyFactory extends AbstractModelFactory<com.wrapper.spotify.mod
 				.withExternalMetadata(SPOTIFY.name(), spotify)
 				.buildTrack();
 		final Collection<Artist> features = track.getFeatures();
-		final Set<Artist> artists = source.getArtists().parallelStream()
+		final Set<Artist> artists = source.getArtists().stream()
 				.map(this::flatArtist)
-				.flatMap(Collection::parallelStream)
+				.flatMap(Collection::stream)
 				.peek(features::remove)
 				.collect(Collectors.toSet());
 		track.setFeatures(Sets.newLinkedHashSet(features));
@@ -114,6 +138,7 @@ public class SpotifyFactory extends AbstractModelFactory<com.wrapper.spotify.mod
 		final Album album = toAlbum(source, artists);
 		final Map<String, Object> extMeta = album.getExternalMetadata(SPOTIFY.name());
 		extMeta.put(POPULARITY, source.getPopularity());
+		extMeta.put(REFRESHED, new Date());
 		album.setGenres(source.getGenres().stream()
 				.map(genreFactory::createGenre)
 				.collect(Collectors.toSet()));
@@ -153,22 +178,27 @@ public class SpotifyFactory extends AbstractModelFactory<com.wrapper.spotify.mod
 				.append(URI, source.getUri());
 		// TODO handle these fields
 		source.getExternalUrls();
-		final byte[] biggest = biggest(source.getImages());
+		album.putExternalMetadata(SPOTIFY.name(), spotify);
+		final Image biggest = biggest(source.getImages());
 		if(biggest != null) {
-			album.setCover(biggest);
+			recordImage(album, biggest);
 		}
-		album.putExternalMetadata(SPOTIFY.name(), spotify);
 		return album;
 	}
+	
+	@Override
+	protected String getServiceName() {
+		return SPOTIFY.name();
+	}
 
-	private byte[] biggest(List<Image> images) {
-		final Image biggest = images.stream()
+	private Image biggest(List<Image> images) {
+		return images.stream()
 				.reduce(this::compare)
 				.orElse(null);
-		if(biggest != null) {
-			return CrawlerIOUtils.downloadImage(biggest.getUrl());
-		}
-		return null;
+	}
+	
+	private void recordImage(MetadataHolder holder, Image image) {
+		recordImage(holder, image.getUrl(), image.getWidth(), image.getHeight());
 	}
 
 	private Image compare(Image left, Image right) {
@@ -203,9 +233,9 @@ public class SpotifyFactory extends AbstractModelFactory<com.wrapper.spotify.mod
 		}
 		if(artist != null) {
 			artist.setGenres(genres);
-			final byte[] biggest = biggest(source.getImages());
+			final Image biggest = biggest(source.getImages());
 			if(biggest != null) {
-				artist.setPicture(biggest);
+				recordImage(artist, biggest);
 			}
 			//TODO add these fields
 			source.getFollowers();
@@ -217,38 +247,61 @@ public class SpotifyFactory extends AbstractModelFactory<com.wrapper.spotify.mod
 	}
 
 	private Set<Artist> flatArtist(SimpleArtist source) {
-		final Set<Artist> flatArtists = artistFactory.getArtistsFromFormat(source.getName());
+		final Set<Artist> flatArtists = resolveArtists(source).stream()
+				.map(name -> name.create(artistFactory))
+				.collect(Collectors.toCollection(Sets::newLinkedHashSet));
 		for(Artist artist : flatArtists) {
-			Map<String, Object> spotify = artist.getExternalMetadata(SPOTIFY.name());
-			if(spotify == null) {
-				spotify = new Document();
-				artist.putExternalMetadata(SPOTIFY.name(), spotify);
-			}
-			spotify.put(ID, source.getId());
-			spotify.put(URL, source.getHref());
-			spotify.put(URI, source.getUri());
+			final Document spotify = new Document(ID, source.getId())
+					.append(URL, source.getHref())
+					.append(URI, source.getUri());
+			artist.putExternalMetadata(SPOTIFY.name(), spotify);
 			//TODO add these fields
 			source.getExternalUrls();
 		}
 		return flatArtists;
 	}
+	
+	private ImmutableList<ArtistName> resolveArtists(SimpleArtist source) {
+		final String id = source.getId();
+		if(id == null) {
+			return namesOf(source);
+		}
+		try {
+			return artists.get(id, () -> namesOf(source));
+		} catch (ExecutionException e) {
+			throw new RuntimeException("Cannot resolve artist " + source.getName(), e.getCause());
+		}
+	}
+	
+	private ImmutableList<ArtistName> namesOf(SimpleArtist source) {
+		return artistFactory.getArtistsFromFormat(source.getName()).stream()
+				.map(ArtistName::of)
+				.collect(ImmutableList.toImmutableList());
+	}
+	
+	public CacheStats getArtistCacheStats() {
+		return artists.stats();
+	}
 
 	@Override
 	public Set<Artist> toArtist(com.wrapper.spotify.models.artist.Artist source) {
 		final Set<Artist> artists = flatArtist(source);
-		final byte[] biggest = biggest(source.getImages());
+		final Image biggest = biggest(source.getImages());
+		if(biggest != null) {
+			artists.forEach(artist -> recordImage(artist, biggest));
+		}
 		final Set<Genre> genres = Sets.newHashSetWithExpectedSize(source.getGenres().size());
 		for(String genreName : source.getGenres()) {
 			genres.add(genreFactory.createGenre(genreName));
 		}
 		for(Artist artist : artists) {
 			final Map<String, Object> spotify = artist.getExternalMetadata(SPOTIFY.name());
-			if(biggest != null) {
-				artist.setPicture(biggest);
-			}
 			artist.setGenres(genres);
 			spotify.put(POPULARITY, source.getPopularity());
-			spotify.put(LISTENERS, source.getFollowers());
+			if(source.getFollowers() != null) {
+				spotify.put(LISTENERS, source.getFollowers().getTotal());
+			}
+			spotify.put(REFRESHED, new Date());
 		}
 		return artists;
 	}
@@ -0,0 +1,51 @@
+package org.rookit.crawler.factory;
+
+import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+
+import org.rookit.dm.artist.ArtistFactory;
+import org.rookit.parser.parser.Parser;
+import org.rookit.parser.result.SingleTrackAlbumBuilder;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+
+class TitleCache {
+	
+	private final Parser<String, SingleTrackAlbumBuilder> parser;
+	private final ArtistFactory artistFactory;
+	private final Cache<String, Optional<ParsedTitle>> titles;
+	
+	TitleCache(Parser<String, SingleTrackAlbumBuilder> parser, ArtistFactory artistFactory, long maxSize) {
+		this.parser = parser;
+		this.artistFactory = artistFactory;
+		this.titles = CacheBuilder.newBuilder()
+				.maximumSize(maxSize)
+				.recordStats()
+				.build();
+	}
+	
+	/**
+	 * Parses a raw title, reusing the result of a previous parse of the same title. Every
+	 * call gets its own builder and artists, so callers are free to keep building on them.
+	 * 
+	 * @param title raw title
+	 * @param minScore results scoring at or below this value are treated as unparseable
+	 * @return a fresh builder with the parsed fields, if the title could be parsed
+	 */
+	Optional<SingleTrackAlbumBuilder> parse(String title, int minScore) {
+		try {
+			return titles.get(title, () -> parser.parse(title).map(ParsedTitle::of))
+					.filter(parsed -> parsed.getScore() > minScore)
+					.map(parsed -> parsed.toBuilder(artistFactory));
+		} catch (ExecutionException e) {
+			throw new RuntimeException("Cannot parse " + title, e.getCause());
+		}
+	}
+	
+	CacheStats getStats() {
+		return titles.stats();
+	}
+
+}
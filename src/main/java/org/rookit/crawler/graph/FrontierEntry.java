@@ -0,0 +1,94 @@
+package org.rookit.crawler.graph;
+
+import org.bson.Document;
+
+class FrontierEntry {
+
+	private static final String ID = "id";
+	private static final String NAME = "name";
+	private static final String DEPTH = "depth";
+	private static final String POPULARITY = "popularity";
+	private static final String FOLLOWERS = "followers";
+	private static final String REFRESHED = "refreshed";
+	private static final String ATTEMPTS = "attempts";
+
+	static FrontierEntry decode(String encoded) {
+		final Document doc = Document.parse(encoded);
+		return new FrontierEntry(doc.getString(ID),
+				doc.getString(NAME),
+				doc.getInteger(DEPTH, 0),
+				doc.getInteger(POPULARITY, 0),
+				number(doc.get(FOLLOWERS)),
+				number(doc.get(REFRESHED)),
+				doc.getInteger(ATTEMPTS, 0));
+	}
+
+	private static long number(Object value) {
+		return value instanceof Number ? ((Number) value).longValue() : 0;
+	}
+
+	private final String id;
+	private final String name;
+	private final int depth;
+	private final int popularity;
+	private final long followers;
+	private final long refreshed;
+	private final int attempts;
+
+	FrontierEntry(String id, String name, int depth, int popularity, long followers, long refreshed, int attempts) {
+		this.id = id;
+		this.name = name;
+		this.depth = depth;
+		this.popularity = popularity;
+		this.followers = followers;
+		this.refreshed = refreshed;
+		this.attempts = attempts;
+	}
+
+	String getId() {
+		return id;
+	}
+
+	String getName() {
+		return name;
+	}
+
+	int getDepth() {
+		return depth;
+	}
+
+	int getPopularity() {
+		return popularity;
+	}
+
+	long getFollowers() {
+		return followers;
+	}
+
+	/**
+	 * @return when the artist was last fetched from the service, in epoch millis, or 0 if unknown.
+	 */
+	long getRefreshed() {
+		return refreshed;
+	}
+
+	int getAttempts() {
+		return attempts;
+	}
+
+	FrontierEntry retry() {
+		return new FrontierEntry(id, name, depth, popularity, followers, refreshed, attempts + 1);
+	}
+
+	String encode() {
+		return new Document(ID, id)
+				.append(NAME, name)
+				.append(DEPTH, depth)
+				.append(POPULARITY, popularity)
+				.append(FOLLOWERS, followers)
+				.append(REFRESHED, refreshed)
+				.append(ATTEMPTS, attempts)
+				.toJson();
+	}
+
+}
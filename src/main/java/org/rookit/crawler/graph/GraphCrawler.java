@@ -0,0 +1,50 @@
+package org.rookit.crawler.graph;
+
+import java.io.Closeable;
+import java.io.File;
+
+import org.mapdb.DB;
+import org.mapdb.DBMaker;
+import org.rookit.crawler.MusicService;
+import org.rookit.crawler.config.GraphConfig;
+import org.rookit.crawler.schedule.CrawlScheduler;
+import org.rookit.dm.artist.Artist;
+import org.rookit.dm.track.Track;
+
+import io.reactivex.Observable;
+
+@SuppressWarnings("javadoc")
+public interface GraphCrawler extends Closeable {
+	
+	static GraphCrawler create(MusicService service, GraphConfig config, CrawlScheduler scheduler) {
+		final File file = new File(config.getStatePath(), service.getName());
+		file.getParentFile().mkdirs();
+		return create(service, config, scheduler, DBMaker.fileDB(file)
+				.fileMmapEnableIfSupported()
+				.transactionEnable()
+				.make());
+	}
+	
+	static GraphCrawler create(MusicService service, GraphConfig config, CrawlScheduler scheduler, DB db) {
+		return new GraphCrawlerImpl(service, config, scheduler, db);
+	}
+	
+	void seed(Artist artist);
+	
+	Observable<Track> crawl();
+	
+	void checkpoint();
+	
+	long getFrontierSize();
+	
+	long getVisitedCount();
+	
+	long getProcessed();
+	
+	long getFailures();
+	
+	long getTracksFound();
+	
+	double getThroughput();
+
+}
@@ -0,0 +1,309 @@
+package org.rookit.crawler.graph;
+
+import static org.rookit.crawler.MusicService.ID;
+import static org.rookit.crawler.MusicService.LISTENERS;
+import static org.rookit.crawler.MusicService.POPULARITY;
+import static org.rookit.crawler.MusicService.REFRESHED;
+
+import java.io.IOException;
+import java.util.Date;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import org.bson.Document;
+import org.mapdb.Atomic;
+import org.mapdb.BTreeMap;
+import org.mapdb.DB;
+import org.mapdb.Serializer;
+import org.mapdb.serializer.SerializerArrayTuple;
+import org.rookit.crawler.MusicService;
+import org.rookit.crawler.config.GraphConfig;
+import org.rookit.crawler.schedule.CrawlScheduler;
+import org.rookit.crawler.utils.CompactIdSet;
+import org.rookit.dm.artist.Artist;
+import org.rookit.dm.artist.ArtistFactory;
+import org.rookit.dm.artist.TypeArtist;
+import org.rookit.dm.track.Track;
+
+import com.google.common.collect.Iterables;
+import com.google.common.collect.Maps;
+
+import io.reactivex.Completable;
+import io.reactivex.Observable;
+import io.reactivex.ObservableEmitter;
+import io.reactivex.disposables.Disposable;
+
+class GraphCrawlerImpl implements GraphCrawler {
+	
+	private static final Logger LOGGER = Logger.getLogger(GraphCrawlerImpl.class.getName());
+	private static final long IDLE_WAIT = 100;
+	
+	// keyed by (-rank, sequence), so that the most valuable artists come first
+	private static final String FRONTIER = "graph.frontierByRank";
+	private static final String VISITED = "graph.visitedIds";
+	private static final String SEQUENCE = "graph.sequence";
+	private static final String PROCESSED = "graph.processed";
+	
+	private final MusicService service;
+	private final CrawlScheduler scheduler;
+	private final DB db;
+	private final BTreeMap<Object[], String> frontier;
+	private final CompactIdSet visited;
+	private final Atomic.Long sequence;
+	private final Atomic.Long processed;
+	private final ArtistFactory artistFactory;
+	
+	private final int maxDepth;
+	private final int fanOut;
+	private final int concurrency;
+	private final int checkpointInterval;
+	private final int maxAttempts;
+	private final boolean discography;
+	
+	private final AtomicLong sinceCheckpoint;
+	private final AtomicLong processedInRun;
+	private final AtomicLong failures;
+	private final AtomicLong tracksFound;
+	private volatile long runStart;
+	
+	GraphCrawlerImpl(MusicService service, GraphConfig config, CrawlScheduler scheduler, DB db) {
+		this.service = service;
+		this.scheduler = scheduler;
+		this.db = db;
+		this.frontier = db.treeMap(FRONTIER, new SerializerArrayTuple(Serializer.DOUBLE, Serializer.LONG), 
+				Serializer.STRING).createOrOpen();
+		this.visited = CompactIdSet.create(db, VISITED);
+		this.sequence = db.atomicLong(SEQUENCE).createOrOpen();
+		this.processed = db.atomicLong(PROCESSED).createOrOpen();
+		this.artistFactory = ArtistFactory.getDefault();
+		this.maxDepth = config.getMaxDepth();
+		this.fanOut = config.getFanOut();
+		this.concurrency = config.getConcurrency();
+		this.checkpointInterval = config.getCheckpointInterval();
+		this.maxAttempts = config.getMaxAttempts();
+		this.discography = !config.isSkipDiscography();
+		this.sinceCheckpoint = new AtomicLong();
+		this.processedInRun = new AtomicLong();
+		this.failures = new AtomicLong();
+		this.tracksFound = new AtomicLong();
+		this.runStart = System.nanoTime();
+		if(!frontier.isEmpty()) {
+			LOGGER.info("Resuming " + service.getName() + " graph crawl with " + frontier.size() 
+			+ " artists in the frontier and " + visited.size() + " visited");
+		}
+	}
+
+	@Override
+	public void seed(Artist artist) {
+		enqueue(artist, 0);
+	}
+	
+	// synchronized with checkpoints, so a commit never captures an artist as visited without its
+	// place in the frontier
+	private synchronized void enqueue(Artist artist, int depth) {
+		final Map<String, Object> doc = artist.getExternalMetadata(service.getName());
+		final String id = doc != null ? (String) doc.get(ID) : null;
+		if(id == null) {
+			throw new RuntimeException("Cannot find id for artist: " + artist.getName());
+		}
+		if(visited.add(id)) {
+			push(new FrontierEntry(id, artist.getName(), depth, 
+					(int) number(doc.get(POPULARITY)), 
+					number(doc.get(LISTENERS)), 
+					timestamp(doc.get(REFRESHED)), 0));
+		}
+	}
+	
+	private void push(FrontierEntry entry) {
+		final double rank = scheduler.rank(metadataOf(entry));
+		frontier.put(new Object[] {-rank, sequence.incrementAndGet()}, entry.encode());
+	}
+	
+	private static long number(Object value) {
+		return value instanceof Number ? ((Number) value).longValue() : 0;
+	}
+	
+	private static long timestamp(Object value) {
+		return value instanceof Date ? ((Date) value).getTime() : number(value);
+	}
+
+	@Override
+	public Observable<Track> crawl() {
+		return Observable.create(source -> {
+			final ObservableEmitter<Track> emitter = source.serialize();
+			// visits in flight, by sequence. They stay in the frontier until they end, so a
+			// checkpoint taken meanwhile visits them again on resume
+			final Map<Long, Disposable> inFlight = new ConcurrentHashMap<>();
+			final Semaphore ended = new Semaphore(0);
+			emitter.setCancellable(() -> inFlight.values().forEach(Disposable::dispose));
+			runStart = System.nanoTime();
+			processedInRun.set(0);
+			while(!emitter.isDisposed()) {
+				if(sinceCheckpoint.get() >= checkpointInterval) {
+					checkpoint();
+				}
+				if(inFlight.size() >= concurrency) {
+					ended.tryAcquire(IDLE_WAIT, TimeUnit.MILLISECONDS);
+					continue;
+				}
+				final Map.Entry<Object[], String> next = next(inFlight.keySet());
+				if(next == null) {
+					if(inFlight.isEmpty()) {
+						break;
+					}
+					// the visits in flight may still add artists to the frontier
+					ended.tryAcquire(IDLE_WAIT, TimeUnit.MILLISECONDS);
+					continue;
+				}
+				final Long key = (Long) next.getKey()[1];
+				final Disposable visit = visit(next)
+						.doFinally(() -> {
+							inFlight.remove(key);
+							ended.release();
+						})
+						.subscribe(emitter::onNext, emitter::tryOnError);
+				inFlight.put(key, visit);
+				if(visit.isDisposed()) {
+					// the visit ended before it was registered
+					inFlight.remove(key, visit);
+				}
+			}
+			checkpoint();
+			emitter.onComplete();
+		});
+	}
+	
+	private Map.Entry<Object[], String> next(Set<Long> inFlight) {
+		for(Map.Entry<Object[], String> entry : frontier.entrySet()) {
+			if(!inFlight.contains(entry.getKey()[1])) {
+				return Maps.immutableEntry(entry.getKey(), entry.getValue());
+			}
+		}
+		return null;
+	}
+	
+	private Observable<Track> visit(Map.Entry<Object[], String> entry) {
+		final FrontierEntry node = FrontierEntry.decode(entry.getValue());
+		final Artist artist = toArtist(node);
+		final Completable related = node.getDepth() < maxDepth
+				? service.searchRelatedArtists(artist)
+						.take(fanOut)
+						.doOnNext(relatedArtist -> enqueue(relatedArtist, node.getDepth() + 1))
+						.ignoreElements()
+				: Completable.complete();
+		final Observable<Track> tracks = discography ? service.getArtistTracks(artist) : Observable.empty();
+		final Observable<Track> work = related.andThen(tracks)
+				.doOnNext(track -> tracksFound.incrementAndGet())
+				.doOnComplete(() -> complete(entry.getKey()))
+				.onErrorResumeNext(error -> {
+					LOGGER.log(Level.WARNING, "Cannot visit artist " + node.getName() + " (" + node.getId() + ")", error);
+					failures.incrementAndGet();
+					retry(entry.getKey(), node);
+					return Observable.empty();
+				});
+		return scheduler.schedule(service.getName(), artist, work);
+	}
+	
+	// the service looks the artist up by its id, so a name that cannot be parsed is kept as is
+	private Artist toArtist(FrontierEntry node) {
+		final Artist parsed = parseArtist(node.getName());
+		final Artist artist = parsed != null ? parsed : artistFactory.createArtist(TypeArtist.GROUP, node.getName());
+		artist.putExternalMetadata(service.getName(), metadataOf(node));
+		return artist;
+	}
+	
+	private Artist parseArtist(String name) {
+		try {
+			return Iterables.getFirst(artistFactory.getArtistsFromFormat(name), null);
+		} catch (RuntimeException e) {
+			LOGGER.log(Level.FINE, "Cannot parse artist name: " + name, e);
+			return null;
+		}
+	}
+	
+	private static Document metadataOf(FrontierEntry node) {
+		final Document metadata = new Document(ID, node.getId())
+				.append(POPULARITY, node.getPopularity())
+				.append(LISTENERS, node.getFollowers());
+		if(node.getRefreshed() > 0) {
+			metadata.append(REFRESHED, new Date(node.getRefreshed()));
+		}
+		return metadata;
+	}
+	
+	// failed artists are already in the visited set, so they are put back in the frontier until
+	// they run out of attempts instead of being dropped
+	private synchronized void retry(Object[] key, FrontierEntry node) {
+		final FrontierEntry retry = node.retry();
+		if(retry.getAttempts() < maxAttempts) {
+			push(retry);
+			frontier.remove(key);
+			sinceCheckpoint.incrementAndGet();
+		}
+		else {
+			LOGGER.warning("Giving up on artist " + node.getName() + " (" + node.getId() + ") after " 
+					+ retry.getAttempts() + " attempts");
+			complete(key);
+		}
+	}
+	
+	private synchronized void complete(Object[] key) {
+		frontier.remove(key);
+		processed.incrementAndGet();
+		processedInRun.incrementAndGet();
+		sinceCheckpoint.incrementAndGet();
+	}
+
+	@Override
+	public synchronized void checkpoint() {
+		sinceCheckpoint.set(0);
+		db.commit();
+		LOGGER.fine("Graph crawl checkpoint: " + processed.get() + " artists visited, " 
+				+ frontier.size() + " in the frontier");
+	}
+
+	@Override
+	public long getFrontierSize() {
+		return frontier.sizeLong();
+	}
+
+	@Override
+	public long getVisitedCount() {
+		return visited.size();
+	}
+
+	@Override
+	public long getProcessed() {
+		return processed.get();
+	}
+
+	@Override
+	public long getFailures() {
+		return failures.get();
+	}
+
+	@Override
+	public long getTracksFound() {
+		return tracksFound.get();
+	}
+
+	@Override
+	public double getThroughput() {
+		final double seconds = (double) (System.nanoTime() - runStart) / TimeUnit.SECONDS.toNanos(1);
+		return seconds > 0 ? processedInRun.get() / seconds : 0;
+	}
+
+	@Override
+	public void close() throws IOException {
+		checkpoint();
+		visited.close();
+		db.close();
+	}
+
+}
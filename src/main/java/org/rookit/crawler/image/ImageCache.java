@@ -0,0 +1,37 @@
+package org.rookit.crawler.image;
+
+import java.io.Closeable;
+import java.io.File;
+import java.util.Optional;
+
+import org.mapdb.DBMaker;
+import org.rookit.crawler.config.ImageConfig;
+
+@SuppressWarnings("javadoc")
+public interface ImageCache extends Closeable {
+	
+	static ImageCache create(ImageConfig config) {
+		final File file = new File(config.getCachePath());
+		if(file.getParentFile() != null) {
+			file.getParentFile().mkdirs();
+		}
+		return new ImageCacheImpl(DBMaker.fileDB(file)
+				.fileMmapEnableIfSupported()
+				.make(), config.getCacheSize());
+	}
+	
+	static ImageCache inMemory(ImageConfig config) {
+		return new ImageCacheImpl(DBMaker.memoryDirectDB().make(), config.getCacheSize());
+	}
+	
+	Optional<byte[]> get(String url);
+	
+	void put(String url, byte[] image);
+	
+	long getHits();
+	
+	long getMisses();
+	
+	long getSize();
+
+}
@@ -0,0 +1,69 @@
+package org.rookit.crawler.image;
+
+import java.io.IOException;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.mapdb.DB;
+import org.mapdb.HTreeMap;
+import org.mapdb.Serializer;
+
+class ImageCacheImpl implements ImageCache {
+	
+	private static final String IMAGES = "images";
+	
+	private final DB db;
+	private final HTreeMap<String, byte[]> images;
+	private final AtomicLong hits;
+	private final AtomicLong misses;
+	
+	ImageCacheImpl(DB db, long maxSize) {
+		this.db = db;
+		// entries are queued on creation and re-queued on every read, so once the store
+		// outgrows the budget the least recently used images are evicted first
+		this.images = db.hashMap(IMAGES, Serializer.STRING, Serializer.BYTE_ARRAY)
+				.expireStoreSize(maxSize)
+				.expireAfterCreate()
+				.expireAfterGet()
+				.createOrOpen();
+		this.hits = new AtomicLong();
+		this.misses = new AtomicLong();
+	}
+
+	@Override
+	public Optional<byte[]> get(String url) {
+		final byte[] image = images.get(url);
+		if(image != null) {
+			hits.incrementAndGet();
+			return Optional.of(image);
+		}
+		misses.incrementAndGet();
+		return Optional.empty();
+	}
+
+	@Override
+	public void put(String url, byte[] image) {
+		images.put(url, image);
+	}
+
+	@Override
+	public long getHits() {
+		return hits.get();
+	}
+
+	@Override
+	public long getMisses() {
+		return misses.get();
+	}
+
+	@Override
+	public long getSize() {
+		return images.sizeLong();
+	}
+
+	@Override
+	public void close() throws IOException {
+		db.close();
+	}
+
+}
@@ -0,0 +1,23 @@
+package org.rookit.crawler.image;
+
+import java.io.Closeable;
+import java.util.concurrent.CompletableFuture;
+
+import org.rookit.crawler.config.ImageConfig;
+
+@SuppressWarnings("javadoc")
+public interface ImageFetcher extends Closeable {
+	
+	static ImageFetcher create(ImageConfig config) {
+		return create(config, ImageCache.create(config));
+	}
+	
+	static ImageFetcher create(ImageConfig config, ImageCache cache) {
+		return new ImageFetcherImpl(config, cache);
+	}
+	
+	CompletableFuture<byte[]> fetch(String url);
+	
+	ImageCache getCache();
+
+}
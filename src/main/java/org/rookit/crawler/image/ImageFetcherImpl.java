@@ -0,0 +1,112 @@
+package org.rookit.crawler.image;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.logging.Logger;
+
+import org.apache.commons.io.IOUtils;
+import org.rookit.crawler.config.ImageConfig;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+class ImageFetcherImpl implements ImageFetcher {
+	
+	private static final Logger LOGGER = Logger.getLogger(ImageFetcherImpl.class.getName());
+	private static final int DEFAULT_BUFFER_SIZE = 64*1024;
+	
+	private final ExecutorService executor;
+	private final ImageCache cache;
+	private final ImageProcessor processor;
+	private final int connectTimeout;
+	private final int readTimeout;
+	private final int maxImageSize;
+	
+	ImageFetcherImpl(ImageConfig config, ImageCache cache) {
+		this.cache = cache;
+		this.processor = new ImageProcessor(config);
+		executor = Executors.newFixedThreadPool(config.getConcurrency(), new ThreadFactoryBuilder()
+				.setNameFormat("image-fetcher-%d")
+				.setDaemon(true)
+				.build());
+		connectTimeout = config.getConnectTimeout();
+		readTimeout = config.getReadTimeout();
+		maxImageSize = config.getMaxImageSize();
+	}
+
+	@Override
+	public CompletableFuture<byte[]> fetch(String url) {
+		final Optional<byte[]> cached = cache.get(url);
+		if(cached.isPresent()) {
+			return CompletableFuture.completedFuture(processor.deduplicate(cached.get()));
+		}
+		// images are cached already normalized, so hits skip decoding and re-encoding
+		return CompletableFuture.supplyAsync(() -> processor.normalize(download(url)), executor)
+				.thenApply(image -> {
+					cache.put(url, image);
+					return processor.deduplicate(image);
+				});
+	}
+
+	@Override
+	public ImageCache getCache() {
+		return cache;
+	}
+	
+	private byte[] download(String urlStr) {
+		try {
+			final HttpURLConnection connection = (HttpURLConnection) new URL(urlStr).openConnection();
+			connection.setConnectTimeout(connectTimeout);
+			connection.setReadTimeout(readTimeout);
+			final int status = connection.getResponseCode();
+			if(status != HttpURLConnection.HTTP_OK) {
+				discard(connection.getErrorStream());
+				throw new IOException("Cannot download " + urlStr + ": HTTP " + status);
+			}
+			final long length = connection.getContentLengthLong();
+			if(length > maxImageSize) {
+				connection.disconnect();
+				throw new IOException("Image " + urlStr + " exceeds " + maxImageSize + " bytes");
+			}
+			// the stream is read to the end and closed so that the connection is kept alive for reuse
+			try(final InputStream input = connection.getInputStream()) {
+				if(length >= 0) {
+					final byte[] image = new byte[(int) length];
+					IOUtils.readFully(input, image);
+					return image;
+				}
+				final ByteArrayOutputStream output = new ByteArrayOutputStream(DEFAULT_BUFFER_SIZE);
+				// one byte more than allowed tells an oversized image from one of exactly the maximum size
+				if(IOUtils.copyLarge(input, output, 0, maxImageSize + 1L) > maxImageSize) {
+					throw new IOException("Image " + urlStr + " exceeds " + maxImageSize + " bytes");
+				}
+				return output.toByteArray();
+			}
+		} catch (IOException e) {
+			LOGGER.warning(e.getMessage());
+			throw new UncheckedIOException(e);
+		}
+	}
+	
+	private void discard(InputStream errorStream) throws IOException {
+		if(errorStream != null) {
+			try(final InputStream input = errorStream) {
+				IOUtils.skip(input, Long.MAX_VALUE);
+			}
+		}
+	}
+
+	@Override
+	public void close() throws IOException {
+		executor.shutdownNow();
+		cache.close();
+	}
+
+}
@@ -0,0 +1,101 @@
+package org.rookit.crawler.image;
+
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.concurrent.ExecutionException;
+import java.util.logging.Logger;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageOutputStream;
+
+import org.rookit.crawler.config.ImageConfig;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.hash.HashCode;
+import com.google.common.hash.HashFunction;
+import com.google.common.hash.Hashing;
+
+class ImageProcessor {
+	
+	private static final Logger LOGGER = Logger.getLogger(ImageProcessor.class.getName());
+	private static final String FORMAT = "jpeg";
+	
+	private final int maxDimension;
+	private final float quality;
+	private final HashFunction hashing;
+	private final Cache<HashCode, byte[]> canonical;
+	
+	ImageProcessor(ImageConfig config) {
+		this.maxDimension = config.getMaxDimension();
+		this.quality = config.getQuality();
+		this.hashing = Hashing.sha256();
+		// weak values: an image is shared for as long as some entity still holds it
+		this.canonical = config.isDeduplicate() ? CacheBuilder.newBuilder().weakValues().build() : null;
+	}
+	
+	byte[] normalize(byte[] image) {
+		if(maxDimension <= 0) {
+			return image;
+		}
+		try {
+			final BufferedImage source = ImageIO.read(new ByteArrayInputStream(image));
+			if(source == null || Math.max(source.getWidth(), source.getHeight()) <= maxDimension) {
+				return image;
+			}
+			return encode(scale(source));
+		} catch (IOException e) {
+			LOGGER.warning("Cannot normalize image: " + e.getMessage());
+			return image;
+		}
+	}
+	
+	byte[] deduplicate(byte[] image) {
+		if(canonical == null) {
+			return image;
+		}
+		try {
+			return canonical.get(hashing.hashBytes(image), () -> image);
+		} catch (ExecutionException e) {
+			return image;
+		}
+	}
+	
+	private BufferedImage scale(BufferedImage source) {
+		final double ratio = (double) maxDimension / Math.max(source.getWidth(), source.getHeight());
+		final int width = Math.max(1, (int) Math.round(source.getWidth() * ratio));
+		final int height = Math.max(1, (int) Math.round(source.getHeight() * ratio));
+		final BufferedImage target = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+		final Graphics2D graphics = target.createGraphics();
+		try {
+			graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+			graphics.drawImage(source, 0, 0, width, height, null);
+		} finally {
+			graphics.dispose();
+		}
+		return target;
+	}
+	
+	private byte[] encode(BufferedImage image) throws IOException {
+		final ImageWriter writer = ImageIO.getImageWritersByFormatName(FORMAT).next();
+		final ImageWriteParam params = writer.getDefaultWriteParam();
+		params.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+		params.setCompressionQuality(quality);
+		final ByteArrayOutputStream output = new ByteArrayOutputStream();
+		try(final ImageOutputStream stream = ImageIO.createImageOutputStream(output)) {
+			writer.setOutput(stream);
+			writer.write(null, new IIOImage(image, null, null), params);
+		} finally {
+			writer.dispose();
+		}
+		return output.toByteArray();
+	}
+
+}
@@ -0,0 +1,43 @@
+package org.rookit.crawler.schedule;
+
+import java.io.Closeable;
+import java.util.Map;
+
+import org.rookit.crawler.config.PriorityConfig;
+import org.rookit.dm.MetadataHolder;
+
+import io.reactivex.Observable;
+
+@SuppressWarnings("javadoc")
+public interface CrawlScheduler extends Closeable {
+	
+	static CrawlScheduler create(PriorityConfig config) {
+		return new CrawlSchedulerImpl(config);
+	}
+	
+	<T> Observable<T> schedule(String service, MetadataHolder subject, Observable<T> work);
+	
+	double priority(String service, MetadataHolder subject);
+	
+	/**
+	 * @return the subject's priority less the aging of the current run, which is capped so that
+	 * ranks from different runs stay comparable.
+	 */
+	double rank(String service, MetadataHolder subject);
+	
+	/**
+	 * @param metadata the subject's metadata in the service, or null if it was never fetched.
+	 */
+	double rank(Map<String, Object> metadata);
+	
+	int getQueued();
+	
+	int getRunning();
+	
+	long getCompleted();
+	
+	long getSteals();
+	
+	double getAverageWait();
+
+}
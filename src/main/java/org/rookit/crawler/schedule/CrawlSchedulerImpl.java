@@ -0,0 +1,230 @@
+package org.rookit.crawler.schedule;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import org.rookit.crawler.config.PriorityConfig;
+import org.rookit.dm.MetadataHolder;
+
+import com.google.common.collect.Lists;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+import io.reactivex.Observable;
+import io.reactivex.ObservableEmitter;
+
+class CrawlSchedulerImpl implements CrawlScheduler {
+	
+	private static final Logger LOGGER = Logger.getLogger(CrawlSchedulerImpl.class.getName());
+	private static final long IDLE_WAIT = 100;
+	
+	private final PriorityFunction priorities;
+	private final double agingRate;
+	private final double maxAging;
+	private final long startedAt;
+	private final List<PriorityBlockingQueue<Task<?>>> queues;
+	// one permit per queued task
+	private final Semaphore queued;
+	private final ExecutorService workers;
+	
+	private final AtomicLong sequence;
+	private final AtomicInteger running;
+	private final AtomicLong completed;
+	private final AtomicLong steals;
+	private final AtomicLong totalWait;
+	
+	private volatile boolean closed;
+	
+	CrawlSchedulerImpl(PriorityConfig config) {
+		final int workerCount = config.getWorkers();
+		this.priorities = new PriorityFunction(config);
+		this.agingRate = config.getAgingRate();
+		this.maxAging = config.getMaxAging() * priorities.getMaxPriority();
+		this.startedAt = System.currentTimeMillis();
+		this.queues = Lists.newArrayListWithCapacity(workerCount);
+		this.queued = new Semaphore(0);
+		this.sequence = new AtomicLong();
+		this.running = new AtomicInteger();
+		this.completed = new AtomicLong();
+		this.steals = new AtomicLong();
+		this.totalWait = new AtomicLong();
+		this.workers = Executors.newFixedThreadPool(workerCount, new ThreadFactoryBuilder()
+				.setNameFormat("crawl-worker-%d")
+				.setDaemon(true)
+				.build());
+		for(int i = 0; i < workerCount; i++) {
+			queues.add(new PriorityBlockingQueue<>());
+		}
+		for(int i = 0; i < workerCount; i++) {
+			final int worker = i;
+			workers.execute(() -> work(worker));
+		}
+	}
+
+	@Override
+	public <T> Observable<T> schedule(String service, MetadataHolder subject, Observable<T> work) {
+		return Observable.create(emitter -> {
+			final long id = sequence.incrementAndGet();
+			final Task<T> task = new Task<>(id, rank(service, subject), work, emitter);
+			emitter.setCancellable(task::cancel);
+			queues.get((int) (id % queues.size())).add(task);
+			queued.release();
+		});
+	}
+	
+	// a task's effective priority is its priority plus the aging rate times the minutes it waited.
+	// Every waiting task ages at the same rate, so ordering by the priority minus the aging of its
+	// enqueue time gives the same order, without ever re-sorting the queues. Aging counts from the
+	// start of this run and is capped, so ranks kept from earlier runs stay within reach of new
+	// ones, and priority always outweighs waiting
+	@Override
+	public double rank(String service, MetadataHolder subject) {
+		return rank(subject.getExternalMetadata(service));
+	}
+
+	@Override
+	public double rank(Map<String, Object> metadata) {
+		final double minutes = (double) (System.currentTimeMillis() - startedAt) / TimeUnit.MINUTES.toMillis(1);
+		return priorities.priority(metadata) - Math.min(maxAging, agingRate*minutes);
+	}
+
+	@Override
+	public double priority(String service, MetadataHolder subject) {
+		return priorities.priority(service, subject);
+	}
+	
+	private void work(int worker) {
+		while(!closed) {
+			try {
+				if(!queued.tryAcquire(IDLE_WAIT, TimeUnit.MILLISECONDS)) {
+					continue;
+				}
+				final Task<?> task = take(worker);
+				totalWait.addAndGet(System.currentTimeMillis() - task.getEnqueuedAt());
+				running.incrementAndGet();
+				try {
+					task.run();
+				} finally {
+					running.decrementAndGet();
+					completed.incrementAndGet();
+				}
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				return;
+			} catch (RuntimeException e) {
+				LOGGER.log(Level.WARNING, "Crawl task failed", e);
+			}
+		}
+	}
+	
+	/**
+	 * Takes the most valuable task among the heads of all queues, preferring the worker's own
+	 * queue on ties. A permit was acquired, so there is at least one task for this worker.
+	 */
+	private Task<?> take(int worker) {
+		while(true) {
+			int best = worker;
+			Task<?> bestHead = queues.get(worker).peek();
+			for(int i = 0; i < queues.size(); i++) {
+				final Task<?> head = queues.get(i).peek();
+				if(head != null && (bestHead == null || head.compareTo(bestHead) < 0)) {
+					best = i;
+					bestHead = head;
+				}
+			}
+			if(bestHead != null) {
+				final Task<?> task = queues.get(best).poll();
+				if(task != null) {
+					if(best != worker) {
+						steals.incrementAndGet();
+					}
+					return task;
+				}
+			}
+		}
+	}
+
+	@Override
+	public int getQueued() {
+		return queued.availablePermits();
+	}
+
+	@Override
+	public int getRunning() {
+		return running.get();
+	}
+
+	@Override
+	public long getCompleted() {
+		return completed.get();
+	}
+
+	@Override
+	public long getSteals() {
+		return steals.get();
+	}
+
+	@Override
+	public double getAverageWait() {
+		final long count = completed.get();
+		return count == 0 ? 0 : (double) totalWait.get() / count;
+	}
+
+	@Override
+	public void close() throws IOException {
+		closed = true;
+		workers.shutdownNow();
+	}
+	
+	private static class Task<T> implements Comparable<Task<?>> {
+		
+		private final long id;
+		private final double rank;
+		private final long enqueuedAt;
+		private final Observable<T> work;
+		private final ObservableEmitter<T> emitter;
+		private volatile boolean cancelled;
+		
+		private Task(long id, double rank, Observable<T> work, ObservableEmitter<T> emitter) {
+			this.id = id;
+			this.rank = rank;
+			this.enqueuedAt = System.currentTimeMillis();
+			this.work = work;
+			this.emitter = emitter;
+		}
+		
+		private long getEnqueuedAt() {
+			return enqueuedAt;
+		}
+		
+		private void cancel() {
+			cancelled = true;
+		}
+		
+		private void run() {
+			if(cancelled) {
+				return;
+			}
+			work.takeWhile(item -> !cancelled)
+					.blockingSubscribe(emitter::onNext, emitter::tryOnError, emitter::onComplete);
+		}
+
+		@Override
+		public int compareTo(Task<?> other) {
+			// higher rank first, then first come first served
+			final int byRank = Double.compare(other.rank, rank);
+			return byRank != 0 ? byRank : Long.compare(id, other.id);
+		}
+		
+	}
+
+}
@@ -0,0 +1,65 @@
+package org.rookit.crawler.schedule;
+
+import static org.rookit.crawler.MusicService.*;
+
+import java.util.Date;
+import java.util.Map;
+
+import org.rookit.crawler.config.PriorityConfig;
+import org.rookit.dm.MetadataHolder;
+
+class PriorityFunction {
+	
+	// log10 of the followers of the biggest artists
+	private static final double MAX_FOLLOWERS_MAGNITUDE = 8;
+	private static final double MAX_POPULARITY = 100;
+	
+	private final double popularityWeight;
+	private final double followersWeight;
+	private final double stalenessWeight;
+	private final long staleAfter;
+	
+	PriorityFunction(PriorityConfig config) {
+		this.popularityWeight = config.getPopularityWeight();
+		this.followersWeight = config.getFollowersWeight();
+		this.stalenessWeight = config.getStalenessWeight();
+		this.staleAfter = config.getStaleAfter();
+	}
+	
+	double getMaxPriority() {
+		return popularityWeight + followersWeight + stalenessWeight;
+	}
+	
+	double priority(String service, MetadataHolder subject) {
+		return priority(subject.getExternalMetadata(service));
+	}
+	
+	double priority(Map<String, Object> metadata) {
+		if(metadata == null) {
+			// never fetched from this service
+			return stalenessWeight;
+		}
+		final double popularity = Math.min(1, number(metadata.get(POPULARITY)) / MAX_POPULARITY);
+		final double followers = Math.min(1, Math.log10(1 + number(metadata.get(LISTENERS))) / MAX_FOLLOWERS_MAGNITUDE);
+		return popularityWeight*popularity + followersWeight*followers + stalenessWeight*staleness(metadata.get(REFRESHED));
+	}
+	
+	private double staleness(Object refreshed) {
+		final long refreshedAt;
+		if(refreshed instanceof Date) {
+			refreshedAt = ((Date) refreshed).getTime();
+		}
+		else if(refreshed instanceof Number) {
+			refreshedAt = ((Number) refreshed).longValue();
+		}
+		else {
+			return 1;
+		}
+		return Math.min(1, Math.max(0, (double) (System.currentTimeMillis() - refreshedAt) / staleAfter));
+	}
+	
+	private double number(Object value) {
+		return value instanceof Number ? ((Number) value).doubleValue() : 0;
+	}
+
+}
@@ -0,0 +1,97 @@
+package org.rookit.crawler.similarity;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.logging.Logger;
+
+import org.mapdb.DB;
+import org.mapdb.DBMaker;
+import org.mapdb.Serializer;
+import org.rookit.crawler.similarity.BKTree.Match;
+
+@SuppressWarnings("javadoc")
+public class ArtistIndex {
+	
+	private static final Logger LOGGER = Logger.getLogger(ArtistIndex.class.getName());
+	
+	public static ArtistIndex create(DB db, String name) {
+		return new ArtistIndex(db.hashMap(name, Serializer.STRING, Serializer.STRING).createOrOpen());
+	}
+	
+	public static ArtistIndex inMemory() {
+		return create(DBMaker.heapDB().make(), "artists");
+	}
+	
+	private final Map<String, String> names;
+	private final BKTree<String> tree;
+	private final ReadWriteLock lock;
+	
+	private ArtistIndex(Map<String, String> names) {
+		this.names = names;
+		this.tree = new BKTree<>();
+		this.lock = new ReentrantReadWriteLock();
+		for(Map.Entry<String, String> entry : names.entrySet()) {
+			tree.add(normalize(entry.getValue()), entry.getKey());
+		}
+		LOGGER.info("Artist index loaded with " + tree.size() + " artists");
+	}
+	
+	private String normalize(String name) {
+		return name.trim().toLowerCase();
+	}
+	
+	public void add(String name, String id) {
+		if(name == null || id == null || name.equals(names.get(id))) {
+			return;
+		}
+		lock.writeLock().lock();
+		try {
+			names.put(id, name);
+			tree.add(normalize(name), id);
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+	
+	public List<Match<String>> search(String name, int maxDistance) {
+		lock.readLock().lock();
+		try {
+			return tree.search(normalize(name), maxDistance);
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+	
+	/**
+	 * Looks for a single known artist within {@code maxDistance} of the name. The hit is only
+	 * considered confident if no other artist is as close to the name.
+	 * 
+	 * @param name artist name
+	 * @param maxDistance maximum edit distance, ignoring case
+	 * @return the id of the closest artist, if unambiguous
+	 */
+	public Optional<String> find(String name, int maxDistance) {
+		final List<Match<String>> matches = search(name, maxDistance);
+		if(matches.isEmpty()) {
+			return Optional.empty();
+		}
+		final Match<String> best = matches.get(0);
+		if(matches.size() > 1 && matches.get(1).getDistance() == best.getDistance()) {
+			return Optional.empty();
+		}
+		return Optional.of(best.getValue());
+	}
+	
+	public int size() {
+		lock.readLock().lock();
+		try {
+			return tree.size();
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+}
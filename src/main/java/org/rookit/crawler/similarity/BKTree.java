@@ -0,0 +1,123 @@
+package org.rookit.crawler.similarity;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.commons.text.similarity.LevenshteinDistance;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
+
+@SuppressWarnings("javadoc")
+public class BKTree<V> {
+	
+	private final LevenshteinDistance distance;
+	private Node<V> root;
+	private int size;
+	
+	public BKTree() {
+		this.distance = LevenshteinDistance.getDefaultInstance();
+	}
+	
+	public void add(String key, V value) {
+		if(root == null) {
+			root = new Node<>(key);
+			root.values.add(value);
+			size++;
+			return;
+		}
+		Node<V> current = root;
+		while(true) {
+			final int score = distance.apply(key, current.key);
+			if(score == 0) {
+				if(current.values.add(value)) {
+					size++;
+				}
+				return;
+			}
+			final Node<V> child = current.children.get(score);
+			if(child == null) {
+				final Node<V> node = new Node<>(key);
+				node.values.add(value);
+				current.children.put(score, node);
+				size++;
+				return;
+			}
+			current = child;
+		}
+	}
+	
+	public List<Match<V>> search(String query, int maxDistance) {
+		final List<Match<V>> matches = Lists.newArrayList();
+		if(root == null) {
+			return matches;
+		}
+		final Deque<Node<V>> pending = new ArrayDeque<>();
+		pending.push(root);
+		while(!pending.isEmpty()) {
+			final Node<V> node = pending.pop();
+			final int score = distance.apply(query, node.key);
+			if(score <= maxDistance) {
+				for(V value : node.values) {
+					matches.add(new Match<>(node.key, value, score));
+				}
+			}
+			for(Map.Entry<Integer, Node<V>> child : node.children.entrySet()) {
+				if(Math.abs(child.getKey() - score) <= maxDistance) {
+					pending.push(child.getValue());
+				}
+			}
+		}
+		matches.sort((left, right) -> Integer.compare(left.getDistance(), right.getDistance()));
+		return matches;
+	}
+	
+	public int size() {
+		return size;
+	}
+	
+	private static class Node<V> {
+		
+		private final String key;
+		private final Set<V> values;
+		private final Map<Integer, Node<V>> children;
+		
+		private Node(String key) {
+			this.key = key;
+			this.values = Sets.newLinkedHashSetWithExpectedSize(1);
+			this.children = Maps.newHashMapWithExpectedSize(4);
+		}
+	}
+	
+	@SuppressWarnings("javadoc")
+	public static class Match<V> {
+		
+		private final String key;
+		private final V value;
+		private final int distance;
+		
+		private Match(String key, V value, int distance) {
+			super();
+			this.key = key;
+			this.value = value;
+			this.distance = distance;
+		}
+
+		public String getKey() {
+			return key;
+		}
+
+		public V getValue() {
+			return value;
+		}
+
+		public int getDistance() {
+			return distance;
+		}
+	}
+
+}
@@ -0,0 +1,146 @@
+package org.rookit.crawler.utils;
+
+import java.net.ConnectException;
+import java.net.SocketTimeoutException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Logger;
+import java.util.regex.Pattern;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.util.concurrent.RateLimiter;
+import com.google.common.util.concurrent.Uninterruptibles;
+
+@SuppressWarnings("javadoc")
+public class AdaptiveRateLimiter {
+	
+	private static final Logger LOGGER = Logger.getLogger(AdaptiveRateLimiter.class.getName());
+	private static final Map<String, AdaptiveRateLimiter> SHARED = new ConcurrentHashMap<>();
+	
+	private static final int PROBE_STREAK = 50;
+	private static final Duration PAUSE = Duration.ofSeconds(1);
+	private static final List<String> OVERLOAD_TYPES = ImmutableList.of("TooManyRequests", "ServerError", 
+			"ServiceUnavailable", "BadGateway", "GatewayTimeout");
+	// 429 and 5xx status codes, or their reason phrases
+	private static final Pattern OVERLOAD_MESSAGE = Pattern.compile("\\b(429|5\\d\\d)\\b|too many requests|rate limit"
+			+ "|internal server error|bad gateway|service unavailable|gateway timeout", Pattern.CASE_INSENSITIVE);
+	
+	public static AdaptiveRateLimiter shared(String serviceKey, double rate, double maxRate) {
+		final AdaptiveRateLimiter limiter = SHARED.computeIfAbsent(serviceKey,
+				key -> new AdaptiveRateLimiter(key, rate, maxRate));
+		if(limiter.initialRate != rate || limiter.maxRate != Math.max(rate, maxRate)) {
+			LOGGER.warning(serviceKey + " is already limited to " + limiter.initialRate + "/s (max "
+					+ limiter.maxRate + "/s). Ignoring " + rate + "/s (max " + maxRate + "/s)");
+		}
+		return limiter;
+	}
+	
+	private final String serviceKey;
+	private final RateLimiter limiter;
+	private final double initialRate;
+	private final double minRate;
+	private final double maxRate;
+	private final double step;
+	private final AtomicInteger cleanStreak;
+	private final AtomicInteger inFlight;
+	private final AtomicLong pausedUntil;
+	private final AtomicLong pausedNanos;
+	
+	private AdaptiveRateLimiter(String serviceKey, double rate, double maxRate) {
+		this.serviceKey = serviceKey;
+		this.limiter = RateLimiter.create(rate);
+		this.initialRate = rate;
+		this.maxRate = Math.max(rate, maxRate);
+		this.minRate = Math.min(1, rate);
+		this.step = rate / 10;
+		this.cleanStreak = new AtomicInteger();
+		this.inFlight = new AtomicInteger();
+		this.pausedUntil = new AtomicLong(System.nanoTime());
+		this.pausedNanos = new AtomicLong();
+	}
+	
+	public RateLimiter getRateLimiter() {
+		return limiter;
+	}
+	
+	public double getPermittedRate() {
+		return limiter.getRate();
+	}
+	
+	/**
+	 * @return estimated wait for a permit.
+	 */
+	public Duration getQueueingDelay() {
+		final int waiting = Math.max(0, inFlight.get() - 1);
+		final long pause = Math.max(0, pausedUntil.get() - System.nanoTime());
+		return Duration.ofNanos(pause + (long) (waiting / limiter.getRate() * TimeUnit.SECONDS.toNanos(1)));
+	}
+	
+	/**
+	 * @return total time requests spent paused after throttling or server failures.
+	 */
+	public Duration getPausedTime() {
+		return Duration.ofNanos(pausedNanos.get());
+	}
+	
+	public void beforeRequest() {
+		inFlight.incrementAndGet();
+		final long pause = pausedUntil.get() - System.nanoTime();
+		if(pause > 0) {
+			pausedNanos.addAndGet(pause);
+			Uninterruptibles.sleepUninterruptibly(pause, TimeUnit.NANOSECONDS);
+		}
+	}
+	
+	public void onSuccess() {
+		inFlight.decrementAndGet();
+		if(cleanStreak.incrementAndGet() >= PROBE_STREAK) {
+			cleanStreak.set(0);
+			final double rate = limiter.getRate();
+			if(rate < maxRate) {
+				limiter.setRate(Math.min(maxRate, rate + step));
+			}
+		}
+	}
+	
+	// a bad id or request fails on its own, only throttling and server failures slow every caller
+	public void onError(Throwable error) {
+		inFlight.decrementAndGet();
+		if(isOverloaded(error)) {
+			onFailure();
+		}
+	}
+	
+	// the client exposes no status codes, so failures are told apart by their type and message
+	static boolean isOverloaded(Throwable error) {
+		for(Throwable current = error; current != null; current = current.getCause()) {
+			if(current instanceof SocketTimeoutException || current instanceof ConnectException) {
+				return true;
+			}
+			final String type = current.getClass().getSimpleName();
+			if(OVERLOAD_TYPES.stream().anyMatch(type::contains)) {
+				return true;
+			}
+			final String message = current.getMessage();
+			if(message != null && OVERLOAD_MESSAGE.matcher(message).find()) {
+				return true;
+			}
+		}
+		return false;
+	}
+	
+	private void onFailure() {
+		cleanStreak.set(0);
+		final double rate = Math.max(minRate, limiter.getRate() / 2);
+		limiter.setRate(rate);
+		final long until = System.nanoTime() + PAUSE.toNanos();
+		pausedUntil.accumulateAndGet(until, Math::max);
+		LOGGER.warning(serviceKey + " is throttling or failing. Rate lowered to " + rate + "/s");
+	}
+
+}
@@ -0,0 +1,134 @@
+package org.rookit.crawler.utils;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.Set;
+
+import org.mapdb.DB;
+import org.mapdb.DBMaker;
+import org.mapdb.Serializer;
+
+@SuppressWarnings("javadoc")
+public class CompactIdSet implements Closeable {
+	
+	private static final String ALPHABET = "0123456789abcdefghijklmnopqrstuvwxyzABCDEFGHIJKLMNOPQRSTUVWXYZ";
+	private static final int BASE = ALPHABET.length();
+	private static final int ID_LENGTH = 22;
+	private static final int PACKED_LENGTH = 16;
+	
+	/**
+	 * @param db store holding the set. It is not closed by this set.
+	 */
+	public static CompactIdSet create(DB db, String name) {
+		return new CompactIdSet(db, name, false);
+	}
+	
+	/**
+	 * @return a set backed by an off-heap store, released on {@link #close()}.
+	 */
+	public static CompactIdSet offHeap() {
+		return new CompactIdSet(DBMaker.memoryDirectDB().make(), "ids", true);
+	}
+	
+	/**
+	 * @return a set backed by serialized on-heap storage.
+	 */
+	public static CompactIdSet onHeap() {
+		return new CompactIdSet(DBMaker.memoryDB().make(), "ids", true);
+	}
+	
+	/**
+	 * @return the 128 bit value of a base62 ID, as 16 big-endian bytes, or null if the ID is not
+	 * a valid base62 ID.
+	 */
+	static byte[] pack(String id) {
+		if(id.length() != ID_LENGTH) {
+			return null;
+		}
+		long high = 0;
+		long low = 0;
+		for(int i = 0; i < ID_LENGTH; i++) {
+			final int digit = ALPHABET.indexOf(id.charAt(i));
+			if(digit < 0) {
+				return null;
+			}
+			// (high, low) = (high, low) * BASE + digit, in 32 bit halves to keep the carries
+			final long low0 = (low & 0xFFFFFFFFL) * BASE + digit;
+			final long low1 = (low >>> 32) * BASE + (low0 >>> 32);
+			final long carry = low1 >>> 32;
+			if(Long.compareUnsigned(high, Long.divideUnsigned(-1L - carry, BASE)) > 0) {
+				return null;
+			}
+			high = high * BASE + carry;
+			low = (low0 & 0xFFFFFFFFL) | (low1 << 32);
+		}
+		final byte[] packed = new byte[PACKED_LENGTH];
+		for(int i = 0; i < 8; i++) {
+			packed[i] = (byte) (high >>> (56 - 8*i));
+			packed[i + 8] = (byte) (low >>> (56 - 8*i));
+		}
+		return packed;
+	}
+	
+	static String unpack(byte[] packed) {
+		long high = 0;
+		long low = 0;
+		for(int i = 0; i < 8; i++) {
+			high = (high << 8) | (packed[i] & 0xFF);
+			low = (low << 8) | (packed[i + 8] & 0xFF);
+		}
+		final char[] id = new char[ID_LENGTH];
+		for(int i = ID_LENGTH - 1; i >= 0; i--) {
+			// (high, low) = (high, low) / BASE, in 32 bit halves
+			long remainder = Long.remainderUnsigned(high, BASE);
+			high = Long.divideUnsigned(high, BASE);
+			long current = (remainder << 32) | (low >>> 32);
+			final long quotient1 = current / BASE;
+			remainder = current % BASE;
+			current = (remainder << 32) | (low & 0xFFFFFFFFL);
+			final long quotient0 = current / BASE;
+			remainder = current % BASE;
+			low = (quotient1 << 32) | quotient0;
+			id[i] = ALPHABET.charAt((int) remainder);
+		}
+		return new String(id);
+	}
+	
+	private final DB db;
+	private final boolean ownsDb;
+	private final Set<byte[]> packedIds;
+	private final Set<String> otherIds;
+	
+	private CompactIdSet(DB db, String name, boolean ownsDb) {
+		this.db = db;
+		this.ownsDb = ownsDb;
+		this.packedIds = db.hashSet(name, Serializer.BYTE_ARRAY).createOrOpen();
+		this.otherIds = db.hashSet(name + ".other", Serializer.STRING).createOrOpen();
+	}
+	
+	/**
+	 * @return true if the ID was not in the set.
+	 */
+	public boolean add(String id) {
+		final byte[] packed = pack(id);
+		return packed != null ? packedIds.add(packed) : otherIds.add(id);
+	}
+	
+	public boolean contains(String id) {
+		final byte[] packed = pack(id);
+		return packed != null ? packedIds.contains(packed) : otherIds.contains(id);
+	}
+	
+	public long size() {
+		return (long) packedIds.size() + otherIds.size();
+	}
+	
+
+	@Override
+	public void close() throws IOException {
+		if(ownsDb) {
+			db.close();
+		}
+	}
+
+}
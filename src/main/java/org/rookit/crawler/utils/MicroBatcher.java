@@ -0,0 +1,146 @@
+package org.rookit.crawler.utils;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import com.google.common.collect.Lists;
+
+import io.reactivex.Scheduler;
+
+@SuppressWarnings("javadoc")
+public class MicroBatcher<K, V> {
+
+	private static final Logger LOGGER = Logger.getLogger(MicroBatcher.class.getName());
+
+	@FunctionalInterface
+	public interface BatchLoader<K, V> {
+		Map<K, V> load(List<K> keys) throws IOException;
+	}
+
+	/**
+	 * Keeps the loaded values by key, so that cached keys never join a batch.
+	 */
+	public interface KeyCache<K, V> {
+
+		/**
+		 * @param refresh sends the key in the next batch, for when the cached value is stale.
+		 * @return the cached value, or null if the key has to be loaded.
+		 */
+		V getIfPresent(K key, Runnable refresh);
+
+		void put(K key, V value);
+	}
+
+	private final BatchLoader<K, V> loader;
+	private final KeyCache<K, V> cache;
+	private final int maxBatch;
+	private final long window;
+	private final Scheduler scheduler;
+
+	private final AtomicLong batches;
+	private final AtomicLong keys;
+
+	private Map<K, CompletableFuture<Optional<V>>> pending;
+
+	public MicroBatcher(BatchLoader<K, V> loader, int maxBatch, Duration window, Scheduler scheduler) {
+		this(loader, null, maxBatch, window, scheduler);
+	}
+
+	public MicroBatcher(BatchLoader<K, V> loader, KeyCache<K, V> cache, int maxBatch, Duration window, Scheduler scheduler) {
+		this.loader = loader;
+		this.cache = cache;
+		this.maxBatch = maxBatch;
+		this.window = window.toNanos();
+		this.scheduler = scheduler;
+		this.batches = new AtomicLong();
+		this.keys = new AtomicLong();
+		this.pending = new LinkedHashMap<>();
+	}
+
+	public CompletableFuture<Optional<V>> get(K key) {
+		if(cache != null) {
+			final V cached = cache.getIfPresent(key, () -> enqueue(key));
+			if(cached != null) {
+				return CompletableFuture.completedFuture(Optional.of(cached));
+			}
+		}
+		return enqueue(key);
+	}
+
+	private CompletableFuture<Optional<V>> enqueue(K key) {
+		final CompletableFuture<Optional<V>> future;
+		final Map<K, CompletableFuture<Optional<V>>> full;
+		synchronized (this) {
+			final CompletableFuture<Optional<V>> queued = pending.get(key);
+			if(queued != null) {
+				return queued;
+			}
+			future = new CompletableFuture<>();
+			pending.put(key, future);
+			if(pending.size() >= maxBatch) {
+				full = pending;
+				pending = new LinkedHashMap<>();
+			}
+			else {
+				full = null;
+				if(pending.size() == 1) {
+					final Map<K, CompletableFuture<Optional<V>>> batch = pending;
+					scheduler.scheduleDirect(() -> flush(batch), window, TimeUnit.NANOSECONDS);
+				}
+			}
+		}
+		if(full != null) {
+			scheduler.scheduleDirect(() -> load(full));
+		}
+		return future;
+	}
+
+	private void flush(Map<K, CompletableFuture<Optional<V>>> batch) {
+		synchronized (this) {
+			// the batch was already sent because it filled up before the window closed
+			if(pending != batch) {
+				return;
+			}
+			pending = new LinkedHashMap<>();
+		}
+		load(batch);
+	}
+
+	private void load(Map<K, CompletableFuture<Optional<V>>> batch) {
+		batches.incrementAndGet();
+		keys.addAndGet(batch.size());
+		try {
+			final Map<K, V> values = loader.load(Lists.newArrayList(batch.keySet()));
+			if(cache != null) {
+				values.forEach((key, value) -> {
+					if(value != null) {
+						cache.put(key, value);
+					}
+				});
+			}
+			batch.forEach((key, future) -> future.complete(Optional.ofNullable(values.get(key))));
+		} catch (IOException | RuntimeException e) {
+			LOGGER.log(Level.WARNING, "Batch of " + batch.size() + " keys failed", e);
+			batch.values().forEach(future -> future.completeExceptionally(e));
+		}
+	}
+
+	public long getBatches() {
+		return batches.get();
+	}
+
+	public double getAverageBatchSize() {
+		final long sent = batches.get();
+		return sent == 0 ? 0 : (double) keys.get() / sent;
+	}
+
+}
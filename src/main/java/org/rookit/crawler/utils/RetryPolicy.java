@@ -0,0 +1,45 @@
+package org.rookit.crawler.utils;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+
+@SuppressWarnings("javadoc")
+public class RetryPolicy {
+	
+	public static final RetryPolicy NONE = new RetryPolicy(0, Duration.ZERO, Duration.ZERO);
+	
+	public static RetryPolicy create(int maxRetries, Duration baseDelay, Duration maxDelay) {
+		return new RetryPolicy(maxRetries, baseDelay, maxDelay);
+	}
+	
+	private final int maxRetries;
+	private final long baseDelayMillis;
+	private final long maxDelayMillis;
+	
+	private RetryPolicy(int maxRetries, Duration baseDelay, Duration maxDelay) {
+		super();
+		this.maxRetries = Math.max(0, maxRetries);
+		this.baseDelayMillis = baseDelay.toMillis();
+		this.maxDelayMillis = Math.max(baseDelayMillis, maxDelay.toMillis());
+	}
+
+	public int getMaxRetries() {
+		return maxRetries;
+	}
+	
+	public boolean canRetry(int retries) {
+		return retries < maxRetries;
+	}
+	
+	/**
+	 * @return the wait before retry number {@code retry} (zero based): exponential up to the
+	 * maximum, with the upper half randomized so that concurrent clients do not retry in lockstep.
+	 */
+	public Duration delay(int retry) {
+		final long exponential = baseDelayMillis << Math.min(retry, 30);
+		final long cap = exponential > 0 ? Math.min(maxDelayMillis, exponential) : maxDelayMillis;
+		final long half = cap / 2;
+		return Duration.ofMillis(half + ThreadLocalRandom.current().nextLong(half + 1));
+	}
+
+}
@@ -0,0 +1,293 @@
+package org.rookit.crawler.utils;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Logger;
+
+import org.rookit.crawler.config.SchedulerConfig;
+import org.rookit.crawler.config.SchedulerConfig.Saturation;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+import io.reactivex.Scheduler;
+import io.reactivex.schedulers.Schedulers;
+
+@SuppressWarnings("javadoc")
+public class ServiceExecutor implements Executor, Closeable {
+
+	private static final Logger LOGGER = Logger.getLogger(ServiceExecutor.class.getName());
+	private static final long RETRY_DELAY = 10;
+
+	public static ServiceExecutor bounded(String name, SchedulerConfig config) {
+		final int threads = config.getThreads();
+		final int queueSize = config.getQueueSize();
+		final BlockingQueue<Runnable> queue = queueSize > 0
+				? new ArrayBlockingQueue<>(queueSize)
+				: new SynchronousQueue<>();
+		final ThreadPoolExecutor pool = new ThreadPoolExecutor(threads, threads,
+				config.getKeepAlive(), TimeUnit.MILLISECONDS, queue,
+				new ThreadFactoryBuilder()
+				.setNameFormat(name + "-request-%d")
+				.setDaemon(true)
+				.build());
+		pool.allowCoreThreadTimeOut(true);
+		return new ServiceExecutor(name, pool, config.getSaturation());
+	}
+
+	public static ServiceExecutor virtual(String name, SchedulerConfig config) {
+		return VirtualThreads.newPerTaskExecutor()
+				.map(executor -> new ServiceExecutor(name, executor, null))
+				.orElseGet(() -> {
+					LOGGER.warning("Virtual threads are not supported by this runtime, using platform threads");
+					return bounded(name, config);
+				});
+	}
+
+	private final ExecutorService delegate;
+	private final Handoff timer;
+	private final Scheduler scheduler;
+	// whether the current thread is running one of this executor's tasks
+	private final ThreadLocal<Boolean> running;
+
+	private final AtomicInteger queued;
+	private final AtomicInteger active;
+	private final AtomicLong completed;
+	private final AtomicLong saturated;
+	private final AtomicLong totalWait;
+	private final AtomicLong maxWait;
+
+	private ServiceExecutor(String name, ExecutorService delegate, Saturation saturation) {
+		this.delegate = delegate;
+		this.running = ThreadLocal.withInitial(() -> false);
+		this.queued = new AtomicInteger();
+		this.active = new AtomicInteger();
+		this.completed = new AtomicLong();
+		this.saturated = new AtomicLong();
+		this.totalWait = new AtomicLong();
+		this.maxWait = new AtomicLong();
+		if(delegate instanceof ThreadPoolExecutor) {
+			((ThreadPoolExecutor) delegate).setRejectedExecutionHandler(onSaturation(saturation));
+		}
+		this.timer = new Handoff(name);
+		this.scheduler = Schedulers.from(timer);
+	}
+
+	// rx drops rejected tasks, so a saturated pool never rejects. Tasks handed off by the timer are
+	// retried later instead, as running them or waiting on the timer thread would stall every delay.
+	// Tasks submitted by a task of this executor never block either: if every thread waited for a
+	// free one, none would ever be freed
+	private RejectedExecutionHandler onSaturation(Saturation saturation) {
+		return (task, pool) -> {
+			if(pool.isShutdown()) {
+				throw new RejectedExecutionException("Executor closed");
+			}
+			saturated.incrementAndGet();
+			if(task instanceof Tracked && ((Tracked) task).isDeferred()) {
+				timer.retry((Tracked) task);
+			}
+			else if(saturation == Saturation.BLOCK && !running.get()) {
+				try {
+					pool.getQueue().put(task);
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+					throw new RejectedExecutionException("Interrupted while waiting for a thread", e);
+				}
+			}
+			else {
+				task.run();
+			}
+		};
+	}
+
+	@Override
+	public void execute(Runnable command) {
+		submit(new Tracked(command, false));
+	}
+	
+	private void defer(Runnable command) {
+		submit(new Tracked(command, true));
+	}
+	
+	private void submit(Tracked task) {
+		queued.incrementAndGet();
+		dispatch(task);
+	}
+	
+	private void dispatch(Tracked task) {
+		try {
+			delegate.execute(task);
+		} catch (RejectedExecutionException e) {
+			queued.decrementAndGet();
+			throw e;
+		}
+	}
+	
+	private void redispatch(Tracked task) {
+		try {
+			dispatch(task);
+		} catch (RejectedExecutionException e) {
+			LOGGER.fine("Dropping delayed task of a closed executor");
+		}
+	}
+
+	public Scheduler getScheduler() {
+		return scheduler;
+	}
+
+	public int getQueueDepth() {
+		return queued.get();
+	}
+
+	public int getActiveCount() {
+		return active.get();
+	}
+
+	public int getPoolSize() {
+		return delegate instanceof ThreadPoolExecutor
+				? ((ThreadPoolExecutor) delegate).getPoolSize()
+				: active.get();
+	}
+
+	public long getCompleted() {
+		return completed.get();
+	}
+
+	public long getSaturated() {
+		return saturated.get();
+	}
+
+	/**
+	 * @return average time, in milliseconds, tasks waited before starting.
+	 */
+	public double getAverageWait() {
+		final long count = completed.get() + active.get();
+		return count == 0 ? 0 : (double) TimeUnit.NANOSECONDS.toMicros(totalWait.get()) / count / 1000;
+	}
+
+	/**
+	 * @return longest time, in milliseconds, a task waited before starting.
+	 */
+	public long getMaxWait() {
+		return TimeUnit.NANOSECONDS.toMillis(maxWait.get());
+	}
+
+	@Override
+	public void close() throws IOException {
+		timer.shutdownNow();
+		delegate.shutdown();
+	}
+	
+	private final class Tracked implements Runnable {
+		
+		private final Runnable command;
+		private final boolean deferred;
+		private final long submittedAt;
+		
+		private Tracked(Runnable command, boolean deferred) {
+			this.command = command;
+			this.deferred = deferred;
+			this.submittedAt = System.nanoTime();
+		}
+		
+		private boolean isDeferred() {
+			return deferred;
+		}
+
+		@Override
+		public void run() {
+			final long wait = System.nanoTime() - submittedAt;
+			queued.decrementAndGet();
+			active.incrementAndGet();
+			totalWait.addAndGet(wait);
+			maxWait.accumulateAndGet(wait, Math::max);
+			// tasks run by their caller nest, so the caller's own state is restored afterwards
+			final boolean nested = running.get();
+			running.set(true);
+			try {
+				command.run();
+			} finally {
+				running.set(nested);
+				active.decrementAndGet();
+				completed.incrementAndGet();
+			}
+		}
+		
+	}
+	
+	// rx runs delayed work on the executor when it is a ScheduledExecutorService, or hands it off
+	// from its single shared thread otherwise. This one only keeps time, every task runs on the pool
+	private final class Handoff extends ScheduledThreadPoolExecutor {
+		
+		private Handoff(String name) {
+			super(1, new ThreadFactoryBuilder()
+					.setNameFormat(name + "-timer-%d")
+					.setDaemon(true)
+					.build());
+			setRemoveOnCancelPolicy(true);
+		}
+		
+		@Override
+		public void execute(Runnable command) {
+			ServiceExecutor.this.execute(command);
+		}
+		
+		@Override
+		public Future<?> submit(Runnable task) {
+			final FutureTask<Object> future = new FutureTask<>(task, null);
+			ServiceExecutor.this.execute(future);
+			return future;
+		}
+		
+		@Override
+		public <T> Future<T> submit(Callable<T> task) {
+			final FutureTask<T> future = new FutureTask<>(task);
+			ServiceExecutor.this.execute(future);
+			return future;
+		}
+		
+		@Override
+		public ScheduledFuture<?> schedule(Runnable command, long delay, TimeUnit unit) {
+			return super.schedule(() -> defer(command), delay, unit);
+		}
+		
+		@Override
+		public <V> ScheduledFuture<V> schedule(Callable<V> callable, long delay, TimeUnit unit) {
+			return super.schedule(() -> {
+				defer(new FutureTask<>(callable));
+				return null;
+			}, delay, unit);
+		}
+		
+		@Override
+		public ScheduledFuture<?> scheduleAtFixedRate(Runnable command, long initialDelay, long period, TimeUnit unit) {
+			return super.scheduleAtFixedRate(() -> defer(command), initialDelay, period, unit);
+		}
+		
+		@Override
+		public ScheduledFuture<?> scheduleWithFixedDelay(Runnable command, long initialDelay, long delay, TimeUnit unit) {
+			return super.scheduleWithFixedDelay(() -> defer(command), initialDelay, delay, unit);
+		}
+		
+		private void retry(Tracked task) {
+			super.schedule(() -> redispatch(task), RETRY_DELAY, TimeUnit.MILLISECONDS);
+		}
+		
+	}
+
+}
@@ -0,0 +1,89 @@
+package org.rookit.crawler.utils;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+@SuppressWarnings("javadoc")
+public class SingleFlight<K> {
+
+	@FunctionalInterface
+	public interface Call<V> {
+		V call() throws IOException;
+	}
+
+	private final Map<K, CompletableFuture<Object>> inFlight;
+	private final AtomicLong calls;
+	private final AtomicLong shared;
+
+	public SingleFlight() {
+		this.inFlight = new ConcurrentHashMap<>();
+		this.calls = new AtomicLong();
+		this.shared = new AtomicLong();
+	}
+
+	@SuppressWarnings("unchecked")
+	public <V> V execute(K key, Call<V> call) throws IOException {
+		if(key == null) {
+			return call.call();
+		}
+		final CompletableFuture<Object> future = new CompletableFuture<>();
+		final CompletableFuture<Object> current = inFlight.putIfAbsent(key, future);
+		if(current != null) {
+			shared.incrementAndGet();
+			return (V) await(current);
+		}
+		calls.incrementAndGet();
+		try {
+			final V result = call.call();
+			future.complete(result);
+			return result;
+		} catch (IOException | RuntimeException e) {
+			future.completeExceptionally(e);
+			throw e;
+		} finally {
+			if(!future.isDone()) {
+				future.completeExceptionally(new IllegalStateException("Call aborted: " + key));
+			}
+			inFlight.remove(key, future);
+		}
+	}
+
+	private Object await(CompletableFuture<Object> future) throws IOException {
+		try {
+			return future.join();
+		} catch (CompletionException e) {
+			final Throwable cause = e.getCause();
+			if(cause instanceof IOException) {
+				throw (IOException) cause;
+			}
+			if(cause instanceof RuntimeException) {
+				throw (RuntimeException) cause;
+			}
+			throw new UncheckedIOException(new IOException(cause));
+		}
+	}
+
+	/**
+	 * @return number of calls actually executed.
+	 */
+	public long getCalls() {
+		return calls.get();
+	}
+
+	/**
+	 * @return number of calls answered by a call already in flight.
+	 */
+	public long getShared() {
+		return shared.get();
+	}
+
+	public int getInFlight() {
+		return inFlight.size();
+	}
+
+}
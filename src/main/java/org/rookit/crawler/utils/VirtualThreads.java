@@ -0,0 +1,36 @@
+package org.rookit.crawler.utils;
+
+import java.lang.reflect.Method;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+
+@SuppressWarnings("javadoc")
+public final class VirtualThreads {
+
+	private static final Optional<Method> FACTORY = lookup();
+
+	private static Optional<Method> lookup() {
+		try {
+			return Optional.of(java.util.concurrent.Executors.class.getMethod("newVirtualThreadPerTaskExecutor"));
+		} catch (NoSuchMethodException e) {
+			return Optional.empty();
+		}
+	}
+
+	private VirtualThreads() {}
+
+	public static boolean isSupported() {
+		return FACTORY.isPresent();
+	}
+
+	public static Optional<ExecutorService> newPerTaskExecutor() {
+		return FACTORY.map(factory -> {
+			try {
+				return (ExecutorService) factory.invoke(null);
+			} catch (ReflectiveOperationException e) {
+				throw new RuntimeException("Cannot create virtual thread executor", e);
+			}
+		});
+	}
+
+}
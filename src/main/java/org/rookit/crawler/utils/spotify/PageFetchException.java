@@ -0,0 +1,30 @@
+package org.rookit.crawler.utils.spotify;
+
+import java.io.IOException;
+
+@SuppressWarnings("javadoc")
+public class PageFetchException extends IOException {
+
+	private static final long serialVersionUID = 1L;
+	
+	private final int offset;
+	private final int attempts;
+
+	PageFetchException(int offset, int attempts, Throwable cause) {
+		super("Cannot fetch page at offset " + offset + " after " + attempts + " attempt(s)", cause);
+		this.offset = offset;
+		this.attempts = attempts;
+	}
+
+	/**
+	 * @return the offset of the page that failed, from which paging can be resumed.
+	 */
+	public int getOffset() {
+		return offset;
+	}
+
+	public int getAttempts() {
+		return attempts;
+	}
+
+}
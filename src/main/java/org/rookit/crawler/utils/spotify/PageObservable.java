@@ -1,20 +1,34 @@
 package org.rookit.crawler.utils.spotify;
 
 import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.net.URL;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Deque;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.function.Consumer;
+import java.util.function.IntFunction;
 import java.util.logging.Logger;
 
 import org.apache.http.Header;
+import org.rookit.crawler.utils.RetryPolicy;
 
+import com.google.common.collect.Lists;
 import com.wrapper.spotify.Api;
 import com.wrapper.spotify.methods.Request;
 import com.wrapper.spotify.models.page.Page;
 
 import io.reactivex.Emitter;
+import io.reactivex.Observable;
 import io.reactivex.ObservableEmitter;
 import io.reactivex.ObservableOnSubscribe;
 import io.reactivex.Observer;
+import io.reactivex.Scheduler;
+import io.reactivex.schedulers.Schedulers;
 
 @SuppressWarnings("javadoc")
 public class PageObservable<T> implements ObservableOnSubscribe<T> {
@@ -57,26 +71,237 @@ public class PageObservable<T> implements ObservableOnSubscribe<T> {
 
 	private final Api api;
 	private final Request<Page<T>> firstPage;
+	
+	private int prefetch;
+	private int concurrency;
+	private boolean ordered;
+	private Scheduler scheduler;
+	private RetryPolicy retryPolicy;
+	private RequestExecutor executor;
+	private IntFunction<Request<Page<T>>> offsetRequests;
+	private Consumer<? super PageFetchException> retryListener;
 
 	private PageObservable(Api api, Request<Page<T>> firstPage) {
 		super();
 		this.api = api;
 		this.firstPage = firstPage;
+		this.prefetch = 0;
+		this.concurrency = 1;
+		this.ordered = true;
+		this.scheduler = Schedulers.io();
+		this.retryPolicy = RetryPolicy.NONE;
+		this.executor = RequestExecutor.DIRECT;
+		this.retryListener = retry -> {};
+	}
+	
+	public PageObservable<T> withPrefetch(int prefetch) {
+		this.prefetch = Math.max(0, prefetch);
+		return this;
+	}
+	
+	public PageObservable<T> withScheduler(Scheduler scheduler) {
+		this.scheduler = scheduler;
+		return this;
+	}
+
+	public PageObservable<T> withConcurrency(int concurrency) {
+		this.concurrency = Math.max(1, concurrency);
+		return this;
+	}
+	
+	public PageObservable<T> withOrdered(boolean ordered) {
+		this.ordered = ordered;
+		return this;
+	}
+	
+	public PageObservable<T> withRetryPolicy(RetryPolicy retryPolicy) {
+		this.retryPolicy = retryPolicy;
+		return this;
+	}
+	
+	public PageObservable<T> withExecutor(RequestExecutor executor) {
+		this.executor = executor;
+		return this;
+	}
+	
+	public PageObservable<T> withRetryListener(Consumer<? super PageFetchException> retryListener) {
+		this.retryListener = retryListener;
+		return this;
+	}
+	
+	public PageObservable<T> withOffsetRequests(IntFunction<Request<Page<T>>> offsetRequests) {
+		this.offsetRequests = offsetRequests;
+		return this;
 	}
 
 	public void drainTo(Emitter<T> emitter) {
-		Request<Page<T>> currentRequest = firstPage;
-		while(currentRequest != null) {
+		if(concurrency > 1 && offsetRequests != null) {
+			drainConcurrently(emitter);
+		}
+		else {
+			drainChained(emitter, firstPage, 0);
+		}
+	}
+	
+	private void drainChained(Emitter<T> emitter, Request<Page<T>> first, int offset) {
+		if(first == null) {
+			return;
+		}
+		if(prefetch > 0) {
+			drainPrefetching(emitter, first, offset);
+		}
+		else {
+			drainSequentially(emitter, first, offset);
+		}
+	}
+	
+	private void drainConcurrently(Emitter<T> emitter) {
+		final Page<T> first;
+		try {
+			first = await(fetchAsync(firstPage, 0));
+		} catch (UncheckedIOException e) {
+			fail(emitter, e.getCause());
+			return;
+		}
+		for(T item : first.getItems()) {
+			emitter.onNext(item);
+		}
+		if(first.getNext() == null) {
+			return;
+		}
+		if(first.getLimit() <= 0) {
+			drainChained(emitter, api.getNextPage(first), nextOffset(first));
+			return;
+		}
+		final List<Integer> offsets = Lists.newArrayList();
+		for(int offset = first.getOffset() + first.getLimit(); offset < first.getTotal(); offset += first.getLimit()) {
+			offsets.add(offset);
+		}
+		final Observable<Integer> source = Observable.fromIterable(offsets);
+		final Observable<Page<T>> pages = ordered
+				? source.concatMapEager(this::fetchAt, concurrency, 1)
+				: source.flatMap(this::fetchAt, concurrency);
+		try {
+			pages.takeWhile(page -> !isCancelled(emitter))
+			.blockingForEach(page -> {
+				for(T item : page.getItems()) {
+					emitter.onNext(item);
+				}
+			});
+		} catch (RuntimeException e) {
+			fail(emitter, e instanceof UncheckedIOException ? e.getCause() : e);
+		}
+	}
+	
+	private Observable<Page<T>> fetchAt(int offset) {
+		return Observable.fromCallable(() -> fetch(offsetRequests.apply(offset), offset))
+				.subscribeOn(scheduler);
+	}
+	
+	// the window has a fixed size: Observable carries no demand to prefetch against
+	private void drainPrefetching(Emitter<T> emitter, Request<Page<T>> first, int offset) {
+		final Executor executor = scheduler::scheduleDirect;
+		final Deque<CompletableFuture<Page<T>>> window = new ArrayDeque<>(prefetch + 1);
+		CompletableFuture<Page<T>> tail = fetchAsync(first, offset);
+		window.add(tail);
+		try {
+			while(!window.isEmpty() && !isCancelled(emitter)) {
+				while(window.size() <= prefetch) {
+					tail = tail.thenApplyAsync(this::fetchNext, executor);
+					window.add(tail);
+				}
+				final Page<T> response = window.poll().join();
+				if(response == null) {
+					break;
+				}
+				for(T item : response.getItems()) {
+					emitter.onNext(item);
+				}
+			}
+		} catch (CompletionException e) {
+			fail(emitter, e.getCause() instanceof UncheckedIOException ? e.getCause().getCause() : e.getCause());
+		} finally {
+			window.forEach(pending -> pending.cancel(false));
+		}
+	}
+	
+	private Page<T> fetchNext(Page<T> previous) {
+		if(previous == null) {
+			return null;
+		}
+		final Request<Page<T>> next = api.getNextPage(previous);
+		return next != null ? fetch(next, nextOffset(previous)) : null;
+	}
+	
+	private int nextOffset(Page<T> page) {
+		return page.getOffset() + page.getLimit();
+	}
+	
+	private CompletableFuture<Page<T>> fetchAsync(Request<Page<T>> request, int offset) {
+		return CompletableFuture.supplyAsync(() -> fetch(request, offset), scheduler::scheduleDirect);
+	}
+	
+	private Page<T> await(CompletableFuture<Page<T>> page) {
+		try {
+			return page.join();
+		} catch (CompletionException e) {
+			if(e.getCause() instanceof RuntimeException) {
+				throw (RuntimeException) e.getCause();
+			}
+			throw e;
+		}
+	}
+	
+	private Page<T> fetch(Request<Page<T>> request, int offset) {
+		for(int retries = 0;; retries++) {
+			try {
+				return executor.execute(request);
+			} catch (IOException e) {
+				if(!retryPolicy.canRetry(retries)) {
+					throw new UncheckedIOException(new PageFetchException(offset, retries + 1, e));
+				}
+				final Duration delay = retryPolicy.delay(retries);
+				LOGGER.warning("Retrying page at offset " + offset + " in " + delay.toMillis() 
+				+ "ms (retry " + (retries + 1) + " of " + retryPolicy.getMaxRetries() + "): " + e.getMessage());
+				retryListener.accept(new PageFetchException(offset, retries + 1, e));
+				backOff(delay, offset, retries + 1, e);
+			}
+		}
+	}
+	
+	private void backOff(Duration delay, int offset, int attempts, IOException error) {
+		try {
+			Thread.sleep(delay.toMillis());
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new UncheckedIOException(new PageFetchException(offset, attempts, error));
+		}
+	}
+	
+	private void fail(Emitter<T> emitter, Throwable error) {
+		LOGGER.severe(error.getMessage());
+		emitter.onError(error);
+	}
+	
+	private boolean isCancelled(Emitter<T> emitter) {
+		return emitter instanceof ObservableEmitter && ((ObservableEmitter<T>) emitter).isDisposed();
+	}
+	
+	private void drainSequentially(Emitter<T> emitter, Request<Page<T>> first, int offset) {
+		Request<Page<T>> currentRequest = first;
+		int currentOffset = offset;
+		while(currentRequest != null && !isCancelled(emitter)) {
 			try {
-				final Page<T> response = currentRequest.exec();
+				final Page<T> response = await(fetchAsync(currentRequest, currentOffset));
 				for(T item : response.getItems()) {
 					emitter.onNext(item);
 				}
+				currentOffset = nextOffset(response);
 				currentRequest = api.getNextPage(response);
-			} catch (IOException e) {
-				emitter.onError(e);
-				LOGGER.severe(e.getMessage());
-			}				
+			} catch (UncheckedIOException e) {
+				fail(emitter, e.getCause());
+				return;
+			}
 		}
 	}
 	
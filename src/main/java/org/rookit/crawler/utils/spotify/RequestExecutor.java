@@ -0,0 +1,20 @@
+package org.rookit.crawler.utils.spotify;
+
+import java.io.IOException;
+
+import com.wrapper.spotify.methods.Request;
+
+@SuppressWarnings("javadoc")
+public interface RequestExecutor {
+	
+	RequestExecutor DIRECT = new RequestExecutor() {
+		
+		@Override
+		public <T> T execute(Request<T> request) throws IOException {
+			return request.exec();
+		}
+	};
+	
+	<T> T execute(Request<T> request) throws IOException;
+
+}
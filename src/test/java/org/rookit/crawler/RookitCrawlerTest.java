@@ -18,6 +18,8 @@ import org.rookit.parser.result.SingleTrackAlbumBuilder;
 
 import com.google.common.collect.Sets;
 
+import io.reactivex.Flowable;
+
 @SuppressWarnings("javadoc")
 public class RookitCrawlerTest {
 
@@ -49,4 +51,19 @@ public class RookitCrawlerTest {
 		
 		assertNotNull(track.getExternalMetadata(AvailableServices.SPOTIFY.name()));
 	}
+	
+	@Test
+	public final void testFillTracks() {
+		final Artist avicii = artistFactory.createArtist(TypeArtist.GROUP, "Avicii");
+		final Track track = SingleTrackAlbumBuilder.create()
+				.withTitle("Hey Brother")
+				.withMainArtists(Sets.newHashSet(avicii))
+				.buildTrack();
+		final FillResult result = guineaPig.fillTracks(Flowable.just(track))
+				.blockingSingle();
+		
+		assertSame(track, result.getTrack());
+		assertFalse(result.getError().isPresent());
+		assertNotNull(track.getExternalMetadata(AvailableServices.SPOTIFY.name()));
+	}
 }
@@ -44,7 +44,8 @@ public class SpotifyTest {
 	}
 
 	@AfterClass
-	public static void tearDown() {
+	public static void tearDown() throws IOException {
+		spotify.close();
 		cache.close();
 	}
 
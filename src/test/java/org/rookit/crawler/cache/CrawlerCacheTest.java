@@ -0,0 +1,87 @@
+package org.rookit.crawler.cache;
+
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.rookit.crawler.config.CacheConfig;
+
+import com.google.common.collect.Lists;
+
+import io.reactivex.schedulers.Schedulers;
+
+@SuppressWarnings("javadoc")
+public class CrawlerCacheTest {
+
+	private static final int SHARDS = 4;
+
+	@Rule
+	public final TemporaryFolder folder = new TemporaryFolder();
+
+	private List<String> keys() {
+		final List<String> keys = Lists.newArrayList();
+		for(int i = 0; i < 200; i++) {
+			keys.add("https://api.spotify.com/v1/albums/" + i);
+		}
+		return keys;
+	}
+
+	@Test
+	public final void testShardOfIsStable() {
+		for(String key : keys()) {
+			final int shard = CrawlerCache.shardOf(key, SHARDS);
+			assertTrue(shard >= 0 && shard < SHARDS);
+			assertEquals(shard, CrawlerCache.shardOf(key, SHARDS));
+			// adding a shard only moves keys to the new one
+			final int grown = CrawlerCache.shardOf(key, SHARDS + 1);
+			assertTrue(grown == shard || grown == SHARDS);
+		}
+	}
+
+	@Test
+	public final void testResponsesAreReadFromTheirShardAfterReopen() throws IOException {
+		final String path = new File(folder.getRoot(), "cache").getPath();
+		final CacheConfig config = new CacheConfig();
+		config.setShards(SHARDS);
+		try(CrawlerCache cache = CrawlerCache.create(path, config)) {
+			final ResponseCache responses = ResponseCache.create(config, cache.getShards(), Schedulers.trampoline());
+			for(String key : keys()) {
+				responses.put(key, key);
+			}
+		}
+		try(CrawlerCache cache = CrawlerCache.create(path, config)) {
+			final List<Integer> used = Lists.newArrayList();
+			for(String key : keys()) {
+				final int shard = CrawlerCache.shardOf(key, SHARDS);
+				assertEquals(key, TieredResponseCache.responsesOf(cache.getShards().get(shard)).get(key));
+				if(!used.contains(shard)) {
+					used.add(shard);
+				}
+			}
+			assertEquals(SHARDS, used.size());
+			final ResponseCache responses = ResponseCache.create(config, cache.getShards(), Schedulers.trampoline());
+			for(String key : keys()) {
+				assertEquals(key, responses.getIfPresent(key, Endpoint.METADATA, () -> fail("Must not be stale")));
+			}
+		}
+		for(int i = 0; i < SHARDS; i++) {
+			assertTrue(new File(path + "." + i).exists());
+		}
+	}
+
+	@Test
+	public final void testSingleShardKeepsOriginalFile() throws IOException {
+		final File file = new File(folder.getRoot(), "cache");
+		try(CrawlerCache cache = CrawlerCache.create(file.getPath(), new CacheConfig())) {
+			assertEquals(1, cache.getShards().size());
+		}
+		assertTrue(file.exists());
+		assertFalse(new File(file.getPath() + ".0").exists());
+	}
+
+}
@@ -0,0 +1,73 @@
+package org.rookit.crawler.cache;
+
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.io.IOException;
+
+import org.junit.After;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.rookit.crawler.config.CacheConfig;
+
+@SuppressWarnings("javadoc")
+public class MissCacheTest {
+
+	private static final String SERVICE = "SPOTIFY";
+
+	@Rule
+	public final TemporaryFolder folder = new TemporaryFolder();
+
+	private MissCache guineaPig;
+
+	@After
+	public void tearDown() throws IOException {
+		if(guineaPig != null) {
+			guineaPig.close();
+		}
+	}
+
+	@Test
+	public final void testQueriesAreNormalized() {
+		guineaPig = MissCache.inMemory(new CacheConfig());
+		guineaPig.recordMiss(SERVICE, "  Some \t Artist   Name ");
+		assertTrue(guineaPig.isKnownMiss(SERVICE, "some artist name"));
+		assertTrue(guineaPig.isKnownMiss(SERVICE, "SOME ARTIST NAME"));
+		assertFalse(guineaPig.isKnownMiss("LASTFM", "some artist name"));
+		assertFalse(guineaPig.isKnownMiss(SERVICE, "some other name"));
+		assertEquals(2, guineaPig.getHits());
+	}
+
+	@Test
+	public final void testMissesExpire() throws InterruptedException {
+		final CacheConfig config = new CacheConfig();
+		config.setMissTtl(50);
+		guineaPig = MissCache.inMemory(config);
+		guineaPig.recordMiss(SERVICE, "query");
+		assertTrue(guineaPig.isKnownMiss(SERVICE, "query"));
+		Thread.sleep(100);
+		assertFalse(guineaPig.isKnownMiss(SERVICE, "query"));
+	}
+
+	@Test
+	public final void testClearForgetsMiss() {
+		guineaPig = MissCache.inMemory(new CacheConfig());
+		guineaPig.recordMiss(SERVICE, "query");
+		guineaPig.clear(SERVICE, " Query ");
+		assertFalse(guineaPig.isKnownMiss(SERVICE, "query"));
+	}
+
+	@Test
+	public final void testMissesSurviveReopen() throws IOException {
+		final CacheConfig config = new CacheConfig();
+		config.setMissCachePath(new File(folder.getRoot(), "misses").getPath());
+		try(MissCache first = MissCache.create(config)) {
+			first.recordMiss(SERVICE, "query");
+		}
+		guineaPig = MissCache.create(config);
+		assertTrue(guineaPig.isKnownMiss(SERVICE, "query"));
+		assertEquals(1, guineaPig.getSize());
+	}
+
+}
@@ -0,0 +1,117 @@
+package org.rookit.crawler.cache;
+
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Collections;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.mapdb.DB;
+import org.mapdb.DBMaker;
+import org.rookit.crawler.config.CacheConfig;
+
+import io.reactivex.schedulers.Schedulers;
+
+@SuppressWarnings("javadoc")
+public class ResponseCacheTest {
+
+	private static final String KEY = "https://api.spotify.com/v1/artists/0OdUWJ0sBjDrqHygGUXeCF";
+
+	@Rule
+	public final TemporaryFolder folder = new TemporaryFolder();
+
+	private File file;
+	private DB db;
+	private CacheConfig config;
+	private AtomicInteger loads;
+
+	@Before
+	public void setUp() {
+		file = new File(folder.getRoot(), "cache");
+		db = open();
+		config = new CacheConfig();
+		loads = new AtomicInteger();
+	}
+
+	@After
+	public void tearDown() {
+		db.close();
+	}
+
+	private DB open() {
+		return DBMaker.fileDB(file).fileMmapEnable().make();
+	}
+
+	// refreshes run on the calling thread, so they are done when get returns
+	private ResponseCache create() {
+		return ResponseCache.create(config, Collections.singletonList(db), Schedulers.trampoline());
+	}
+
+	private ResponseCache.Loader<String> loader(String response) {
+		return () -> {
+			loads.incrementAndGet();
+			return response;
+		};
+	}
+
+	@Test
+	public final void testHeapTierAnswersRepeatedGets() throws IOException {
+		final ResponseCache guineaPig = create();
+		assertEquals("first", guineaPig.get(KEY, Endpoint.METADATA, loader("first"), null));
+		assertEquals("first", guineaPig.get(KEY, Endpoint.METADATA, loader("second"), null));
+		assertEquals(1, loads.get());
+		assertEquals(1, guineaPig.getHeapStats().hitCount());
+		assertEquals(1, guineaPig.getHeapSize());
+	}
+
+	@Test
+	public final void testStoredResponseSurvivesReopen() throws IOException {
+		create().get(KEY, Endpoint.METADATA, loader("stored"), null);
+		db.close();
+		db = open();
+		final ResponseCache guineaPig = create();
+		assertEquals("stored", guineaPig.get(KEY, Endpoint.METADATA, () -> {
+			throw new IOException("must be served from the file");
+		}, null));
+		assertEquals(1, loads.get());
+	}
+
+	@Test
+	public final void testStaleResponseIsServedAndRevalidated() throws Exception {
+		config.setMetadataTtl(1);
+		final ResponseCache guineaPig = create();
+		guineaPig.get(KEY, Endpoint.METADATA, loader("old"), null);
+		Thread.sleep(10);
+		assertEquals("old", guineaPig.get(KEY, Endpoint.METADATA, loader("unused"), loader("new")));
+		assertEquals(1, guineaPig.getStaleHits());
+		assertEquals(1, guineaPig.getRefreshes());
+		// read through an endpoint that never goes stale, so that it is not refreshed again
+		assertEquals("new", guineaPig.get(KEY, Endpoint.AUDIO_FEATURES, loader("unused"), null));
+		assertEquals(2, loads.get());
+	}
+
+	@Test
+	public final void testUnstampedResponseIsStale() throws IOException {
+		TieredResponseCache.responsesOf(db).put(KEY, "unstamped");
+		final ResponseCache guineaPig = create();
+		assertEquals("unstamped", guineaPig.get(KEY, Endpoint.METADATA, loader("unused"), loader("fresh")));
+		assertEquals(1, guineaPig.getRefreshes());
+		assertNotNull(TieredResponseCache.fetchedAtOf(db).get(KEY));
+	}
+
+	@Test
+	public final void testInvalidateRemovesStoredResponse() throws IOException {
+		final ResponseCache guineaPig = create();
+		guineaPig.get(KEY, Endpoint.METADATA, loader("first"), null);
+		guineaPig.invalidate(KEY);
+		assertFalse(TieredResponseCache.responsesOf(db).containsKey(KEY));
+		assertEquals("second", guineaPig.get(KEY, Endpoint.METADATA, loader("second"), null));
+	}
+
+}
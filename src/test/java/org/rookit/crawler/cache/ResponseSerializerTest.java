@@ -0,0 +1,91 @@
+package org.rookit.crawler.cache;
+
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Test;
+import org.mapdb.DataInput2;
+import org.mapdb.DataOutput2;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Lists;
+import com.wrapper.spotify.models.page.Page;
+
+@SuppressWarnings("javadoc")
+public class ResponseSerializerTest {
+
+	private final ResponseSerializer guineaPig = new ResponseSerializer();
+
+	@Test
+	public final void testPageRoundTrip() throws IOException {
+		final Page<String> page = new Page<>();
+		page.setOffset(20);
+		page.setLimit(2);
+		page.setTotal(31);
+		page.setItems(Lists.newArrayList("a", "b"));
+		page.setNext("https://api.spotify.com/v1/stub?offset=22");
+
+		final Page<?> copy = (Page<?>) roundTrip(page);
+		assertEquals(20, copy.getOffset());
+		assertEquals(2, copy.getLimit());
+		assertEquals(31, copy.getTotal());
+		assertEquals(Lists.newArrayList("a", "b"), copy.getItems());
+		assertEquals(page.getNext(), copy.getNext());
+	}
+
+	@Test
+	public final void testModelRoundTrip() throws IOException {
+		final Model model = new Model();
+		model.name = "name";
+		model.kind = Kind.SECOND;
+		model.scores = new double[] {0.5, 1.5};
+		model.released = new Date(1234L);
+		model.children = Lists.newArrayList(new Model(), null);
+		model.counts = ImmutableMap.of("plays", 3L);
+		model.cached = "not stored";
+
+		final Model copy = (Model) roundTrip(model);
+		assertEquals("name", copy.name);
+		assertEquals(Kind.SECOND, copy.kind);
+		assertArrayEquals(new double[] {0.5, 1.5}, copy.scores, 0);
+		assertEquals(new Date(1234L), copy.released);
+		assertEquals(2, copy.children.size());
+		assertNotNull(copy.children.get(0));
+		assertNull(copy.children.get(1));
+		assertEquals(Long.valueOf(3), copy.counts.get("plays"));
+		assertNull(copy.cached);
+	}
+
+	@Test(expected = IOException.class)
+	public final void testRejectsUnknownJdkTypes() throws IOException {
+		roundTrip(new StringBuilder("not a model"));
+	}
+
+	private Object roundTrip(Object value) throws IOException {
+		final DataOutput2 out = new DataOutput2();
+		guineaPig.serialize(out, value);
+		final byte[] bytes = out.copyBytes();
+		return guineaPig.deserialize(new DataInput2.ByteArray(bytes), bytes.length);
+	}
+
+	private enum Kind {
+		FIRST, SECOND
+	}
+
+	private static class Model {
+
+		private String name;
+		private Kind kind;
+		private double[] scores;
+		private Date released;
+		private List<Model> children;
+		private Map<String, Long> counts;
+		private transient String cached;
+
+	}
+
+}
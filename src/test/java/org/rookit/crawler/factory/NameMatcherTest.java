@@ -0,0 +1,54 @@
+package org.rookit.crawler.factory;
+
+import static org.junit.Assert.*;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.junit.Test;
+
+@SuppressWarnings("javadoc")
+public class NameMatcherTest {
+	
+	private final NameMatcher guineaPig = new NameMatcher(10);
+
+	@Test
+	public final void testExactMatchIgnoresCase() {
+		final List<String> names = Arrays.asList("Green Day", "Greenday Tribute", "Day Green");
+		assertEquals("green day", guineaPig.bestMatch(names, "GREEN DAY"));
+	}
+	
+	@Test
+	public final void testClosestMatch() {
+		final List<String> names = Arrays.asList("Avicci", "Avicii Tribute Band", "Avic");
+		assertEquals("avicci", guineaPig.bestMatch(names, "Avicii"));
+	}
+	
+	@Test
+	public final void testTiesPickLastCandidate() {
+		final List<String> names = Arrays.asList("abd", "abe", "abf");
+		assertEquals("abf", guineaPig.bestMatch(names, "abc"));
+	}
+	
+	@Test
+	public final void testLargeCollections() {
+		final List<String> names = IntStream.range(0, 2000)
+				.mapToObj(i -> "artist " + i)
+				.collect(Collectors.toList());
+		assertEquals("artist 1234", guineaPig.bestMatch(names, "Artist 1234"));
+	}
+	
+	@Test(expected = RuntimeException.class)
+	public final void testNothingUnderThreshold() {
+		guineaPig.bestMatch(Arrays.asList("Macklemore", "Ryan Lewis"), "The Beatles and The Rolling Stones");
+	}
+	
+	@Test(expected = RuntimeException.class)
+	public final void testEmptyCollection() {
+		guineaPig.bestMatch(Collections.emptyList(), "Madeon");
+	}
+
+}
@@ -0,0 +1,118 @@
+package org.rookit.crawler.schedule;
+
+import static org.junit.Assert.*;
+import static org.rookit.crawler.MusicService.*;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.bson.Document;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.rookit.crawler.config.PriorityConfig;
+import org.rookit.dm.artist.Artist;
+import org.rookit.dm.artist.ArtistFactory;
+import org.rookit.dm.artist.TypeArtist;
+
+import com.google.common.collect.Lists;
+
+import io.reactivex.Observable;
+
+@SuppressWarnings("javadoc")
+public class CrawlSchedulerTest {
+
+	private static final String SERVICE = "test";
+
+	private CrawlScheduler guineaPig;
+
+	@Before
+	public void setUp() {
+		final PriorityConfig config = new PriorityConfig();
+		config.setWorkers(1);
+		guineaPig = CrawlScheduler.create(config);
+	}
+
+	@After
+	public void tearDown() throws IOException {
+		guineaPig.close();
+	}
+
+	@Test
+	public final void testScheduleEmitsWork() {
+		final List<Integer> items = guineaPig.schedule(SERVICE, artist(50), Observable.just(1, 2, 3))
+				.toList()
+				.blockingGet();
+		assertEquals(Lists.newArrayList(1, 2, 3), items);
+		assertEquals(1, guineaPig.getCompleted());
+	}
+
+	@Test
+	public final void testHigherPriorityRunsFirst() throws InterruptedException {
+		final CountDownLatch started = new CountDownLatch(1);
+		final CountDownLatch release = new CountDownLatch(1);
+		final List<String> order = Collections.synchronizedList(Lists.newArrayList());
+		guineaPig.schedule(SERVICE, artist(50), Observable.fromCallable(() -> {
+			started.countDown();
+			return release.await(5, TimeUnit.SECONDS);
+		})).subscribe();
+		assertTrue(started.await(5, TimeUnit.SECONDS));
+
+		final CountDownLatch done = new CountDownLatch(2);
+		guineaPig.schedule(SERVICE, artist(10), Observable.just("obscure"))
+				.doFinally(done::countDown)
+				.subscribe(order::add);
+		guineaPig.schedule(SERVICE, artist(90), Observable.just("popular"))
+				.doFinally(done::countDown)
+				.subscribe(order::add);
+		assertEquals(2, guineaPig.getQueued());
+		release.countDown();
+
+		assertTrue(done.await(5, TimeUnit.SECONDS));
+		assertEquals(Lists.newArrayList("popular", "obscure"), order);
+	}
+
+	@Test
+	public final void testRankAges() throws InterruptedException {
+		final Artist artist = artist(50);
+		final double first = guineaPig.rank(SERVICE, artist);
+		assertTrue(first <= guineaPig.priority(SERVICE, artist));
+		Thread.sleep(10);
+		assertTrue(guineaPig.rank(SERVICE, artist) < first);
+	}
+
+	@Test
+	public final void testAgingIsCapped() throws IOException, InterruptedException {
+		final PriorityConfig config = new PriorityConfig();
+		config.setWorkers(1);
+		config.setAgingRate(1000000);
+		config.setMaxAging(0.1);
+		try(CrawlScheduler aging = CrawlScheduler.create(config)) {
+			Thread.sleep(10);
+			final Artist artist = artist(50);
+			// the default weights give a priority range of 3
+			assertEquals(aging.priority(SERVICE, artist) - 0.3, aging.rank(SERVICE, artist), 1e-9);
+			assertTrue(aging.rank(SERVICE, artist(100)) > aging.rank(SERVICE, artist(0)));
+		}
+	}
+
+	@Test
+	public final void testRankFromMetadata() {
+		final Document popular = new Document(POPULARITY, 100).append(REFRESHED, new Date());
+		final Document obscure = new Document(POPULARITY, 0).append(REFRESHED, new Date());
+		assertTrue(guineaPig.rank(popular) > guineaPig.rank(obscure));
+		// never fetched, so only its staleness counts
+		assertTrue(guineaPig.rank(null) > guineaPig.rank(obscure));
+	}
+
+	private Artist artist(int popularity) {
+		final Artist artist = ArtistFactory.getDefault().createArtist(TypeArtist.GROUP, "U2");
+		artist.putExternalMetadata(SERVICE, new Document(POPULARITY, popularity).append(REFRESHED, new Date()));
+		return artist;
+	}
+
+}
@@ -0,0 +1,75 @@
+package org.rookit.crawler.schedule;
+
+import static org.junit.Assert.*;
+import static org.rookit.crawler.MusicService.*;
+
+import java.util.Date;
+
+import org.bson.Document;
+import org.junit.Before;
+import org.junit.Test;
+import org.rookit.crawler.config.PriorityConfig;
+import org.rookit.dm.artist.Artist;
+import org.rookit.dm.artist.ArtistFactory;
+import org.rookit.dm.artist.TypeArtist;
+
+@SuppressWarnings("javadoc")
+public class PriorityFunctionTest {
+
+	private static final String SERVICE = "test";
+
+	private PriorityConfig config;
+	private PriorityFunction guineaPig;
+
+	@Before
+	public void setUp() {
+		config = new PriorityConfig();
+		guineaPig = new PriorityFunction(config);
+	}
+
+	@Test
+	public final void testPopularityRanksHigher() {
+		final Date now = new Date();
+		final Artist popular = artist(new Document(POPULARITY, 90).append(REFRESHED, now));
+		final Artist obscure = artist(new Document(POPULARITY, 10).append(REFRESHED, now));
+		assertTrue(guineaPig.priority(SERVICE, popular) > guineaPig.priority(SERVICE, obscure));
+	}
+
+	@Test
+	public final void testFollowersRanksHigher() {
+		final Date now = new Date();
+		final Artist followed = artist(new Document(LISTENERS, 1_000_000L).append(REFRESHED, now));
+		final Artist unknown = artist(new Document(LISTENERS, 10).append(REFRESHED, now));
+		assertTrue(guineaPig.priority(SERVICE, followed) > guineaPig.priority(SERVICE, unknown));
+	}
+
+	@Test
+	public final void testFollowersAsNumber() {
+		final long now = System.currentTimeMillis();
+		final Artist followed = artist(new Document(LISTENERS, 99_999_999).append(REFRESHED, now));
+		assertEquals(config.getFollowersWeight(), guineaPig.priority(SERVICE, followed), 0.01);
+	}
+
+	@Test
+	public final void testStaleRanksHigher() {
+		final long staleAfter = config.getStaleAfter();
+		final Artist fresh = artist(new Document(POPULARITY, 50).append(REFRESHED, new Date()));
+		final Artist stale = artist(new Document(POPULARITY, 50)
+				.append(REFRESHED, new Date(System.currentTimeMillis() - staleAfter)));
+		assertEquals(config.getStalenessWeight(), 
+				guineaPig.priority(SERVICE, stale) - guineaPig.priority(SERVICE, fresh), 0.01);
+	}
+
+	@Test
+	public final void testMissingMetadata() {
+		final Artist artist = ArtistFactory.getDefault().createArtist(TypeArtist.GROUP, "U2");
+		assertEquals(config.getStalenessWeight(), guineaPig.priority(SERVICE, artist), 0);
+	}
+
+	private Artist artist(Document metadata) {
+		final Artist artist = ArtistFactory.getDefault().createArtist(TypeArtist.GROUP, "U2");
+		artist.putExternalMetadata(SERVICE, metadata);
+		return artist;
+	}
+
+}
@@ -0,0 +1,67 @@
+package org.rookit.crawler.similarity;
+
+import static org.junit.Assert.*;
+import static org.hamcrest.Matchers.*;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.rookit.crawler.similarity.BKTree.Match;
+
+@SuppressWarnings("javadoc")
+public class BKTreeTest {
+	
+	private BKTree<Integer> guineaPig;
+	
+	@Before
+	public void setUp() {
+		guineaPig = new BKTree<>();
+		guineaPig.add("green day", 1);
+		guineaPig.add("madeon", 2);
+		guineaPig.add("madonna", 3);
+		guineaPig.add("avicii", 4);
+		guineaPig.add("u2", 5);
+		guineaPig.add("madeon", 6);
+	}
+
+	@Test
+	public final void testExactSearch() {
+		final List<Integer> values = guineaPig.search("madeon", 0).stream()
+				.map(Match::getValue)
+				.collect(Collectors.toList());
+		assertThat(values, containsInAnyOrder(2, 6));
+	}
+	
+	@Test
+	public final void testFuzzySearch() {
+		final List<Match<Integer>> matches = guineaPig.search("avici", 1);
+		assertEquals(1, matches.size());
+		assertEquals("avicii", matches.get(0).getKey());
+		assertEquals(1, matches.get(0).getDistance());
+	}
+	
+	@Test
+	public final void testSearchSortedByDistance() {
+		final List<Match<Integer>> matches = guineaPig.search("madona", 3);
+		assertThat(matches.size(), is(greaterThanOrEqualTo(2)));
+		assertEquals("madonna", matches.get(0).getKey());
+		for(int i = 1; i < matches.size(); i++) {
+			assertThat(matches.get(i).getDistance(), is(greaterThanOrEqualTo(matches.get(i - 1).getDistance())));
+		}
+	}
+	
+	@Test
+	public final void testNoMatch() {
+		assertTrue(guineaPig.search("the beatles", 2).isEmpty());
+	}
+	
+	@Test
+	public final void testSize() {
+		assertEquals(6, guineaPig.size());
+		guineaPig.add("u2", 5);
+		assertEquals(6, guineaPig.size());
+	}
+
+}
@@ -0,0 +1,43 @@
+package org.rookit.crawler.utils;
+
+import static org.junit.Assert.*;
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.net.SocketTimeoutException;
+
+import org.junit.Test;
+
+@SuppressWarnings("javadoc")
+public class AdaptiveRateLimiterTest {
+
+	@Test
+	public final void testThrottlingLowersRate() {
+		final AdaptiveRateLimiter guineaPig = AdaptiveRateLimiter.shared("throttled", 10, 10);
+		guineaPig.beforeRequest();
+		guineaPig.onError(new IOException("429: Too Many Requests"));
+		assertEquals(5, guineaPig.getPermittedRate(), 0.01);
+	}
+
+	@Test
+	public final void testClientErrorKeepsRate() {
+		final AdaptiveRateLimiter guineaPig = AdaptiveRateLimiter.shared("not-found", 10, 10);
+		guineaPig.beforeRequest();
+		guineaPig.onError(new FileNotFoundException("404: non existing id"));
+		guineaPig.beforeRequest();
+		guineaPig.onError(new IOException("Cannot parse response"));
+		assertEquals(10, guineaPig.getPermittedRate(), 0.01);
+		assertEquals(0, guineaPig.getPausedTime().toNanos());
+	}
+
+	@Test
+	public final void testOverloaded() {
+		assertTrue(AdaptiveRateLimiter.isOverloaded(new IOException("503 Service Unavailable")));
+		assertTrue(AdaptiveRateLimiter.isOverloaded(new IOException("Bad Gateway")));
+		assertTrue(AdaptiveRateLimiter.isOverloaded(new RuntimeException(new SocketTimeoutException())));
+		assertFalse(AdaptiveRateLimiter.isOverloaded(new IOException("400: invalid id")));
+		assertFalse(AdaptiveRateLimiter.isOverloaded(new IOException()));
+		assertFalse(AdaptiveRateLimiter.isOverloaded(new NullPointerException()));
+	}
+
+}
@@ -0,0 +1,62 @@
+package org.rookit.crawler.utils;
+
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+@SuppressWarnings("javadoc")
+public class CompactIdSetTest {
+
+	private static final String ID = "4uLU6hMCjMI75M1A2tKUQC";
+
+	private CompactIdSet guineaPig;
+
+	@Before
+	public void setUp() {
+		guineaPig = CompactIdSet.onHeap();
+	}
+
+	@After
+	public void tearDown() throws IOException {
+		guineaPig.close();
+	}
+
+	@Test
+	public final void testPackRoundTrip() {
+		final byte[] packed = CompactIdSet.pack(ID);
+		assertNotNull(packed);
+		assertEquals(16, packed.length);
+		assertEquals(ID, CompactIdSet.unpack(packed));
+		assertEquals("0000000000000000000000", CompactIdSet.unpack(CompactIdSet.pack("0000000000000000000000")));
+	}
+
+	@Test
+	public final void testPackRejectsInvalidIds() {
+		assertNull(CompactIdSet.pack("short"));
+		assertNull(CompactIdSet.pack("4uLU6hMCjMI75M1A2tKUQ-"));
+		// above 128 bits
+		assertNull(CompactIdSet.pack("zzzzzzzzzzzzzzzzzzzzzz"));
+	}
+
+	@Test
+	public final void testAdd() {
+		assertFalse(guineaPig.contains(ID));
+		assertTrue(guineaPig.add(ID));
+		assertFalse(guineaPig.add(ID));
+		assertTrue(guineaPig.contains(ID));
+		assertEquals(1, guineaPig.size());
+	}
+
+	@Test
+	public final void testAddOtherIds() {
+		assertTrue(guineaPig.add("mbid:1234"));
+		assertFalse(guineaPig.add("mbid:1234"));
+		assertTrue(guineaPig.contains("mbid:1234"));
+		assertFalse(guineaPig.contains(ID));
+	}
+
+}
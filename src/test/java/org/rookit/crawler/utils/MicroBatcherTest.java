@@ -0,0 +1,107 @@
+package org.rookit.crawler.utils;
+
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.junit.Test;
+
+import com.google.common.collect.Lists;
+
+import io.reactivex.schedulers.Schedulers;
+
+@SuppressWarnings("javadoc")
+public class MicroBatcherTest {
+
+	private static final Duration LONG_WINDOW = Duration.ofMinutes(1);
+
+	private final List<List<String>> batches = new CopyOnWriteArrayList<>();
+
+	@Test
+	public final void testFullBatchIsSentWithoutWaiting() throws Exception {
+		final MicroBatcher<String, String> guineaPig = new MicroBatcher<>(this::upperCase, 3, LONG_WINDOW, Schedulers.single());
+		final List<CompletableFuture<Optional<String>>> results = Lists.newArrayList();
+		for(String key : Lists.newArrayList("a", "b", "c", "d", "e", "f")) {
+			results.add(guineaPig.get(key));
+		}
+		for(int i = 0; i < results.size(); i++) {
+			assertEquals(Optional.of(String.valueOf((char) ('A' + i))), results.get(i).get(1, TimeUnit.SECONDS));
+		}
+		assertEquals(Lists.newArrayList(Lists.newArrayList("a", "b", "c"), Lists.newArrayList("d", "e", "f")), batches);
+		assertEquals(3, guineaPig.getAverageBatchSize(), 0);
+	}
+
+	@Test
+	public final void testPartialBatchIsSentWhenWindowCloses() throws Exception {
+		final MicroBatcher<String, String> guineaPig = new MicroBatcher<>(this::upperCase, 10, Duration.ofMillis(20), Schedulers.single());
+		final CompletableFuture<Optional<String>> first = guineaPig.get("a");
+		final CompletableFuture<Optional<String>> second = guineaPig.get("b");
+		final CompletableFuture<Optional<String>> repeated = guineaPig.get("a");
+		assertEquals(Optional.of("A"), first.get(1, TimeUnit.SECONDS));
+		assertEquals(Optional.of("B"), second.get(1, TimeUnit.SECONDS));
+		assertSame(first, repeated);
+		assertEquals(Lists.newArrayList(Lists.newArrayList("a", "b")), batches);
+		assertEquals(1, guineaPig.getBatches());
+	}
+
+	@Test
+	public final void testFailureReachesEveryKey() throws Exception {
+		final IOException failure = new IOException("failed");
+		final MicroBatcher<String, String> guineaPig = new MicroBatcher<>(keys -> {
+			throw failure;
+		}, 2, LONG_WINDOW, Schedulers.single());
+		final CompletableFuture<Optional<String>> first = guineaPig.get("a");
+		final CompletableFuture<Optional<String>> second = guineaPig.get("b");
+		for(CompletableFuture<Optional<String>> result : Lists.newArrayList(first, second)) {
+			try {
+				result.get(1, TimeUnit.SECONDS);
+				fail("The batch failure must reach every key");
+			} catch (ExecutionException e) {
+				assertSame(failure, e.getCause());
+			}
+		}
+	}
+
+	@Test
+	public final void testCachedKeysSkipTheBatch() throws Exception {
+		final Map<String, String> cache = new ConcurrentHashMap<>();
+		cache.put("a", "cached");
+		final MicroBatcher<String, String> guineaPig = new MicroBatcher<>(this::upperCase, new MicroBatcher.KeyCache<String, String>() {
+
+			@Override
+			public String getIfPresent(String key, Runnable refresh) {
+				return cache.get(key);
+			}
+
+			@Override
+			public void put(String key, String value) {
+				cache.put(key, value);
+			}
+		}, 2, LONG_WINDOW, Schedulers.single());
+		assertEquals(Optional.of("cached"), guineaPig.get("a").get(1, TimeUnit.SECONDS));
+		final CompletableFuture<Optional<String>> second = guineaPig.get("b");
+		final CompletableFuture<Optional<String>> third = guineaPig.get("c");
+		assertEquals(Optional.of("B"), second.get(1, TimeUnit.SECONDS));
+		assertEquals(Optional.of("C"), third.get(1, TimeUnit.SECONDS));
+		assertEquals(Lists.newArrayList(Lists.newArrayList("b", "c")), batches);
+		assertEquals("B", cache.get("b"));
+		assertEquals("C", cache.get("c"));
+	}
+
+	private Map<String, String> upperCase(List<String> keys) {
+		batches.add(Lists.newArrayList(keys));
+		return keys.stream().collect(Collectors.toMap(Function.identity(), key -> key.toUpperCase()));
+	}
+
+}
@@ -0,0 +1,135 @@
+package org.rookit.crawler.utils;
+
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.rookit.crawler.config.SchedulerConfig;
+
+import io.reactivex.Observable;
+
+@SuppressWarnings("javadoc")
+public class ServiceExecutorTest {
+
+	private ServiceExecutor guineaPig;
+
+	@Before
+	public void setUp() {
+		final SchedulerConfig config = new SchedulerConfig();
+		config.setThreads(1);
+		guineaPig = ServiceExecutor.bounded("test", config);
+	}
+
+	@After
+	public void tearDown() throws IOException {
+		guineaPig.close();
+	}
+
+	@Test
+	public final void testSaturatedCallerRuns() throws InterruptedException {
+		final CountDownLatch started = new CountDownLatch(1);
+		final CountDownLatch release = new CountDownLatch(1);
+		guineaPig.execute(() -> {
+			started.countDown();
+			awaitQuietly(release);
+		});
+		assertTrue(started.await(5, TimeUnit.SECONDS));
+		assertEquals(1, guineaPig.getActiveCount());
+
+		final AtomicReference<Thread> runner = new AtomicReference<>();
+		guineaPig.execute(() -> runner.set(Thread.currentThread()));
+		assertSame(Thread.currentThread(), runner.get());
+		assertEquals(1, guineaPig.getSaturated());
+
+		release.countDown();
+		while(guineaPig.getCompleted() < 2) {
+			Thread.yield();
+		}
+		assertEquals(0, guineaPig.getActiveCount());
+		assertEquals(0, guineaPig.getQueueDepth());
+	}
+
+	@Test
+	public final void testSaturatedPoolThreadNeverBlocks() throws IOException, InterruptedException {
+		final SchedulerConfig config = new SchedulerConfig();
+		config.setThreads(1);
+		config.setSaturation(SchedulerConfig.Saturation.BLOCK);
+		try(ServiceExecutor blocking = ServiceExecutor.bounded("blocking", config)) {
+			final CountDownLatch ran = new CountDownLatch(1);
+			final AtomicReference<Thread> runner = new AtomicReference<>();
+			final AtomicReference<Thread> nested = new AtomicReference<>();
+			blocking.execute(() -> {
+				runner.set(Thread.currentThread());
+				// the only thread is this one, so waiting for it would never end
+				blocking.execute(() -> nested.set(Thread.currentThread()));
+				ran.countDown();
+			});
+			assertTrue(ran.await(5, TimeUnit.SECONDS));
+			assertSame(runner.get(), nested.get());
+			assertEquals(1, blocking.getSaturated());
+		}
+	}
+
+	@Test
+	public final void testSchedulerRunsOnPool() {
+		final String thread = Observable.fromCallable(() -> Thread.currentThread().getName())
+				.subscribeOn(guineaPig.getScheduler())
+				.blockingFirst();
+		assertTrue(thread.startsWith("test-request-"));
+		assertTrue(guineaPig.getAverageWait() >= 0);
+	}
+
+	@Test
+	public final void testSaturatedDelayedRunsOnPool() throws InterruptedException {
+		final CountDownLatch started = new CountDownLatch(1);
+		final CountDownLatch release = new CountDownLatch(1);
+		guineaPig.execute(() -> {
+			started.countDown();
+			awaitQuietly(release);
+		});
+		assertTrue(started.await(5, TimeUnit.SECONDS));
+
+		final CountDownLatch ran = new CountDownLatch(1);
+		final AtomicReference<String> runner = new AtomicReference<>();
+		Observable.timer(10, TimeUnit.MILLISECONDS, guineaPig.getScheduler())
+				.subscribe(tick -> {
+					runner.set(Thread.currentThread().getName());
+					ran.countDown();
+				});
+		while(guineaPig.getSaturated() == 0) {
+			Thread.yield();
+		}
+		assertEquals(1, ran.getCount());
+
+		release.countDown();
+		assertTrue(ran.await(5, TimeUnit.SECONDS));
+		assertTrue(runner.get().startsWith("test-request-"));
+	}
+
+	@Test
+	public final void testClosedRejects() throws IOException {
+		guineaPig.close();
+		try {
+			guineaPig.execute(() -> {});
+			fail("A closed executor must reject tasks");
+		} catch (RejectedExecutionException e) {
+			assertEquals(0, guineaPig.getQueueDepth());
+		}
+	}
+
+	private void awaitQuietly(CountDownLatch latch) {
+		try {
+			latch.await();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+}
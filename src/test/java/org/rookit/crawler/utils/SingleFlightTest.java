@@ -0,0 +1,83 @@
+package org.rookit.crawler.utils;
+
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Before;
+import org.junit.Test;
+
+@SuppressWarnings("javadoc")
+public class SingleFlightTest {
+
+	private SingleFlight<String> guineaPig;
+
+	@Before
+	public void setUp() {
+		guineaPig = new SingleFlight<>();
+	}
+
+	@Test
+	public final void testConcurrentCallsShareResult() throws Exception {
+		final CountDownLatch started = new CountDownLatch(1);
+		final CountDownLatch release = new CountDownLatch(1);
+		final AtomicInteger executions = new AtomicInteger();
+		final CompletableFuture<String> leader = CompletableFuture.supplyAsync(() -> call(() -> {
+			started.countDown();
+			release.await();
+			executions.incrementAndGet();
+			return "result";
+		}));
+		started.await();
+		final CompletableFuture<String> follower = CompletableFuture.supplyAsync(() -> call(() -> {
+			executions.incrementAndGet();
+			return "other";
+		}));
+		while(guineaPig.getShared() == 0) {
+			Thread.yield();
+		}
+		release.countDown();
+		assertEquals("result", leader.get());
+		assertEquals("result", follower.get());
+		assertEquals(1, executions.get());
+		assertEquals(0, guineaPig.getInFlight());
+	}
+
+	@Test
+	public final void testSequentialCallsAreNotShared() throws IOException {
+		assertEquals("a", guineaPig.execute("key", () -> "a"));
+		assertEquals("b", guineaPig.execute("key", () -> "b"));
+		assertEquals(2, guineaPig.getCalls());
+		assertEquals(0, guineaPig.getShared());
+	}
+
+	@Test(expected = IOException.class)
+	public final void testFailureIsPropagated() throws IOException {
+		guineaPig.execute("key", () -> {
+			throw new IOException("failed");
+		});
+	}
+
+	private String call(Blocking<String> body) {
+		try {
+			return guineaPig.execute("key", () -> {
+				try {
+					return body.run();
+				} catch (InterruptedException e) {
+					throw new IOException(e);
+				}
+			});
+		} catch (IOException e) {
+			throw new RuntimeException(e);
+		}
+	}
+
+	@FunctionalInterface
+	private interface Blocking<T> {
+		T run() throws InterruptedException;
+	}
+
+}
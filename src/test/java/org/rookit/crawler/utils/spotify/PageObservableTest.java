@@ -0,0 +1,158 @@
+package org.rookit.crawler.utils.spotify;
+
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.net.URL;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.http.Header;
+import org.junit.Test;
+import org.rookit.crawler.utils.RetryPolicy;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Sets;
+import com.wrapper.spotify.Api;
+import com.wrapper.spotify.methods.Request;
+import com.wrapper.spotify.models.page.Page;
+
+import io.reactivex.Observable;
+import io.reactivex.observers.TestObserver;
+
+@SuppressWarnings("javadoc")
+public class PageObservableTest {
+
+	private static final int LIMIT = 2;
+	private static final int TOTAL = 10;
+
+	@Test
+	public final void testFanOutKeepsOrder() {
+		final AtomicInteger requests = new AtomicInteger();
+		final PageObservable<Integer> guineaPig = PageObservable.create(Api.builder().build(), pageAt(0, requests))
+				.withOffsetRequests(offset -> pageAt(offset, requests))
+				.withConcurrency(4);
+		final List<Integer> items = Observable.create(guineaPig).toList().blockingGet();
+		assertEquals(Lists.newArrayList(0, 1, 2, 3, 4, 5, 6, 7, 8, 9), items);
+		assertEquals(TOTAL / LIMIT, requests.get());
+	}
+
+	@Test
+	public final void testUnorderedFanOut() {
+		final AtomicInteger requests = new AtomicInteger();
+		final PageObservable<Integer> guineaPig = PageObservable.create(Api.builder().build(), pageAt(0, requests))
+				.withOffsetRequests(offset -> pageAt(offset, requests))
+				.withConcurrency(4)
+				.withOrdered(false);
+		final List<Integer> items = Observable.create(guineaPig).toList().blockingGet();
+		assertEquals(TOTAL, items.size());
+		assertEquals(Sets.newHashSet(0, 1, 2, 3, 4, 5, 6, 7, 8, 9), Sets.newHashSet(items));
+	}
+
+	@Test
+	public final void testRetriesFailedPage() {
+		final AtomicInteger requests = new AtomicInteger();
+		final List<PageFetchException> retries = Collections.synchronizedList(Lists.newArrayList());
+		final PageObservable<Integer> guineaPig = PageObservable.create(Api.builder().build(), failing(2, requests))
+				.withRetryPolicy(RetryPolicy.create(3, Duration.ofMillis(1), Duration.ofMillis(1)))
+				.withRetryListener(retries::add);
+		final List<Integer> items = Observable.create(guineaPig).toList().blockingGet();
+		assertEquals(Lists.newArrayList(8, 9), items);
+		assertEquals(3, requests.get());
+		assertEquals(2, retries.size());
+		assertEquals(1, retries.get(0).getAttempts());
+		assertEquals(2, retries.get(1).getAttempts());
+		assertEquals(0, retries.get(1).getOffset());
+	}
+
+	@Test
+	public final void testGivesUpAfterMaxRetries() {
+		final AtomicInteger requests = new AtomicInteger();
+		final List<PageFetchException> retries = Collections.synchronizedList(Lists.newArrayList());
+		final PageObservable<Integer> guineaPig = PageObservable.create(Api.builder().build(), failing(Integer.MAX_VALUE, requests))
+				.withRetryPolicy(RetryPolicy.create(2, Duration.ofMillis(1), Duration.ofMillis(1)))
+				.withRetryListener(retries::add);
+		final TestObserver<Integer> observer = Observable.create(guineaPig).test();
+		observer.awaitTerminalEvent();
+		observer.assertNoValues();
+		observer.assertError(PageFetchException.class);
+		assertEquals(3, ((PageFetchException) observer.errors().get(0)).getAttempts());
+		assertEquals(3, requests.get());
+		assertEquals(2, retries.size());
+	}
+
+	// a single page, which fails the first times it is requested
+	private static Request<Page<Integer>> failing(int failures, AtomicInteger requests) {
+		return new StubRequest<>(() -> {
+			if(requests.incrementAndGet() <= failures) {
+				throw new IOException("Stub failure");
+			}
+			return page(8);
+		});
+	}
+
+	// later pages answer first, so that only the fan-out's ordering keeps them in place
+	private static Request<Page<Integer>> pageAt(int offset, AtomicInteger requests) {
+		return new StubRequest<>(() -> {
+			requests.incrementAndGet();
+			sleep((TOTAL - offset) * 5);
+			return page(offset);
+		});
+	}
+
+	static Page<Integer> page(int offset) {
+		final Page<Integer> page = new Page<>();
+		page.setOffset(offset);
+		page.setLimit(LIMIT);
+		page.setTotal(TOTAL);
+		page.setItems(Lists.newArrayList(offset, offset + 1));
+		page.setNext(offset + LIMIT < TOTAL ? "https://api.spotify.com/v1/stub?offset=" + (offset + LIMIT) : null);
+		return page;
+	}
+
+	private static void sleep(long millis) {
+		try {
+			Thread.sleep(millis);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	@FunctionalInterface
+	interface Response<T> {
+		T get() throws IOException;
+	}
+
+	static class StubRequest<T> implements Request<T> {
+
+		private final Response<T> response;
+
+		StubRequest(Response<T> response) {
+			this.response = response;
+		}
+
+		@Override
+		public T exec() throws IOException {
+			return response.get();
+		}
+
+		@Override
+		public URL toUrl() {
+			return null;
+		}
+
+		@Override
+		public List<Header> getHeader() {
+			return null;
+		}
+
+		@Override
+		public String getBody() {
+			return null;
+		}
+
+	}
+
+}